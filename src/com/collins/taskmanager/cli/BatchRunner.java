@@ -0,0 +1,283 @@
+package com.collins.taskmanager.cli;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.repository.TaskCursor;
+import com.collins.taskmanager.repository.TaskPage;
+import com.collins.taskmanager.service.AutoSaver;
+import com.collins.taskmanager.service.TaskService;
+import com.collins.taskmanager.service.TaskTransfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs TaskManagerApp commands from a script, one command per line, without prompts.
+ * <p>
+ * Commands (words are separated by spaces; put a value with spaces in double
+ * quotes, with \" and \\ as escapes inside the quotes):
+ * - create TITLE DESCRIPTION STATUS PRIORITY [DUE_DATE]   prints "created ID"
+ * - update-status ID STATUS                               prints "updated ID STATUS"
+ * - delete ID                                             prints "deleted ID"
+ * - filter status|priority|due-before|due-after VALUE     prints each task, then "matched N"
+ * - save                                                  prints "saved"
+ * - import FILE [new-ids]                                 prints "imported N"
+ * - export FILE                                           prints "exported N"
+ * Blank lines and lines starting with # are skipped. A command that fails prints
+ * "error line N: message" and the script carries on.
+ * <p>
+ * All output goes through the given writer, which should be buffered. Runs of
+ * consecutive create commands are saved with one TaskService.createTasks call
+ * per batch; their output still appears in script order.
+ * <p>
+ * import and export stream .csv, .jsonl and .ndjson files through {@link TaskTransfer}
+ * and report their progress on standard error. Imported tasks keep the ids in the
+ * file unless new-ids is given.
+ */
+final class BatchRunner {
+
+    private static final int CREATE_BATCH_SIZE = 1_000;
+    private static final int FILTER_PAGE_SIZE = 1_000;
+
+    private final TaskService service;
+    private final AutoSaver autoSaver;
+    private final Writer out;
+    private final TaskTransfer transfer;
+
+    // Create commands waiting for the next batch, and the line each came from.
+    private final List<Task> pendingCreates = new ArrayList<>();
+    private final List<Integer> pendingLines = new ArrayList<>();
+
+    private long commands;
+    private long failures;
+
+    BatchRunner(TaskService service, AutoSaver autoSaver, Writer out) {
+        this.service = service;
+        this.autoSaver = autoSaver;
+        this.out = out;
+        this.transfer = new TaskTransfer(service, TaskTransfer.DEFAULT_BATCH_SIZE,
+                count -> System.err.println("... " + count + " tasks"));
+    }
+
+    /**
+     * Runs every command read from the input and flushes the writer at the end.
+     *
+     * @throws IOException if reading the script or writing the output fails
+     */
+    void run(BufferedReader in) throws IOException {
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if(trimmed.isEmpty() || trimmed.startsWith("#")){
+                continue;
+            }
+            commands++;
+            try{
+                execute(tokenize(trimmed), lineNumber);
+            }catch (RuntimeException e){
+                error(lineNumber, e.getMessage());
+            }
+        }
+        flushCreates();
+        out.flush();
+    }
+
+    long getCommands() {
+        return commands;
+    }
+
+    long getFailures() {
+        return failures;
+    }
+
+    private void execute(List<String> words, int lineNumber) throws IOException {
+        String command = words.get(0);
+        if(command.equals("create")){
+            expectArguments(words, 5, 6);
+            LocalDate dueDate = words.size() == 6 ? LocalDate.parse(words.get(5)) : null;
+            pendingCreates.add(new Task(words.get(1), words.get(2),
+                    TaskStatus.valueOf(words.get(3).toUpperCase()),
+                    TaskPriority.valueOf(words.get(4).toUpperCase()),
+                    dueDate));
+            pendingLines.add(lineNumber);
+            if(pendingCreates.size() == CREATE_BATCH_SIZE){
+                flushCreates();
+            }
+            return;
+        }
+
+        // Every other command may depend on the creates before it.
+        flushCreates();
+        switch (command) {
+            case "update-status" -> {
+                expectArguments(words, 3, 3);
+                Task task = service.updateStatus(Integer.parseInt(words.get(1)), TaskStatus.valueOf(words.get(2).toUpperCase()));
+                out.write("updated " + task.getId() + " " + task.getStatus() + "\n");
+            }
+            case "delete" -> {
+                expectArguments(words, 2, 2);
+                int id = Integer.parseInt(words.get(1));
+                service.deleteTask(id);
+                out.write("deleted " + id + "\n");
+            }
+            case "filter" -> {
+                expectArguments(words, 3, 3);
+                filter(words.get(1), words.get(2));
+            }
+            case "save" -> {
+                expectArguments(words, 1, 1);
+                try{
+                    autoSaver.flush();
+                    out.write("saved\n");
+                }catch (IOException e){
+                    error(lineNumber, e.getMessage());
+                }
+            }
+            case "import" -> {
+                expectArguments(words, 2, 3);
+                boolean keepIds = words.size() == 2;
+                if(!keepIds && !words.get(2).equals("new-ids")){
+                    throw new IllegalArgumentException("Unknown import option: " + words.get(2));
+                }
+                try{
+                    out.write("imported " + transfer.importFile(Path.of(words.get(1)), keepIds) + "\n");
+                }catch (NoSuchFileException e){
+                    error(lineNumber, "No such file: " + e.getFile());
+                }catch (IOException e){
+                    error(lineNumber, e.getMessage());
+                }
+            }
+            case "export" -> {
+                expectArguments(words, 2, 2);
+                try{
+                    out.write("exported " + transfer.exportFile(Path.of(words.get(1))) + "\n");
+                }catch (IOException e){
+                    error(lineNumber, e.getMessage());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    private void filter(String criterion, String value) throws IOException {
+        Function<TaskCursor, TaskPage> fetch = switch (criterion) {
+            case "status" -> {
+                TaskStatus status = TaskStatus.valueOf(value.toUpperCase());
+                yield after -> service.filterByStatusPage(status, after, FILTER_PAGE_SIZE);
+            }
+            case "priority" -> {
+                TaskPriority priority = TaskPriority.valueOf(value.toUpperCase());
+                yield after -> service.filterByPriorityPage(priority, after, FILTER_PAGE_SIZE);
+            }
+            case "due-before" -> {
+                LocalDate date = LocalDate.parse(value);
+                yield after -> service.filterByDueDateBeforePage(date, after, FILTER_PAGE_SIZE);
+            }
+            case "due-after" -> {
+                LocalDate date = LocalDate.parse(value);
+                yield after -> service.filterByDueDateAfterPage(date, after, FILTER_PAGE_SIZE);
+            }
+            default -> throw new IllegalArgumentException("Unknown filter: " + criterion);
+        };
+
+        // Page through the matches so a large result never has to fit in one list.
+        long matched = 0;
+        TaskPage page = fetch.apply(null);
+        while (true) {
+            for (Task task : page.getTasks()) {
+                out.write(task.toString());
+                out.write('\n');
+            }
+            matched += page.getTasks().size();
+            if(!page.hasNext()){
+                break;
+            }
+            page = fetch.apply(page.getNext());
+        }
+        out.write("matched " + matched + "\n");
+    }
+
+    private void flushCreates() throws IOException {
+        if(pendingCreates.isEmpty()){
+            return;
+        }
+        // take the batch first, so error() below finds nothing left to flush
+        List<Task> creates = new ArrayList<>(pendingCreates);
+        List<Integer> lines = new ArrayList<>(pendingLines);
+        pendingCreates.clear();
+        pendingLines.clear();
+        try{
+            for (Task task : service.createTasks(creates)) {
+                out.write("created " + task.getId() + "\n");
+            }
+        }catch (RuntimeException e){
+            for (Integer line : lines) {
+                error(line, e.getMessage());
+            }
+        }
+    }
+
+    private void error(int lineNumber, String message) throws IOException {
+        flushCreates();
+        failures++;
+        out.write("error line " + lineNumber + ": " + message + "\n");
+    }
+
+    private static void expectArguments(List<String> words, int min, int max) {
+        if(words.size() < min || words.size() > max){
+            throw new IllegalArgumentException(words.get(0) + " expects " + (min == max ? min - 1 : (min - 1) + " to " + (max - 1)) + " arguments");
+        }
+    }
+
+    /**
+     * Splits a command line into words at spaces and tabs, keeping double-quoted
+     * values together.
+     *
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    static List<String> tokenize(String line) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if(c == ' ' || c == '\t'){
+                i++;
+                continue;
+            }
+            word.setLength(0);
+            if(c == '"'){
+                i++;
+                while (true) {
+                    if(i == line.length()){
+                        throw new IllegalArgumentException("Unclosed quote");
+                    }
+                    char q = line.charAt(i++);
+                    if(q == '"'){
+                        break;
+                    }
+                    if(q == '\\' && i < line.length()){
+                        q = line.charAt(i++);
+                    }
+                    word.append(q);
+                }
+            }else{
+                while (i < line.length() && line.charAt(i) != ' ' && line.charAt(i) != '\t') {
+                    word.append(line.charAt(i++));
+                }
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+}
@@ -0,0 +1,33 @@
+package com.collins.taskmanager.cli;
+
+import com.collins.taskmanager.io.BinaryTaskStorage;
+import com.collins.taskmanager.io.FileTaskStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line tool that converts a text task file into the binary format.
+ * <p>
+ * Usage: StorageConverter [source.txt] [target.bin]
+ * Defaults to fileStorage.txt and tasks.bin in the working directory.
+ */
+public class StorageConverter {
+    public static void main(String[] args) {
+        Path source = Path.of(args.length > 0 ? args[0] : "fileStorage.txt");
+        Path target = Path.of(args.length > 1 ? args[1] : "tasks.bin");
+        try{
+            long start = System.nanoTime();
+            long count = BinaryTaskStorage.convert(new FileTaskStorage(source), target);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Converted " + count + " tasks in " + millis + " ms");
+            if(Files.exists(source)){
+                System.out.println(source + ": " + Files.size(source) + " bytes");
+            }
+            System.out.println(target + ": " + Files.size(target) + " bytes");
+        }catch (IOException e){
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -1,17 +1,41 @@
 package com.collins.taskmanager.cli;
 
+import com.collins.taskmanager.io.BinaryTaskStorage;
 import com.collins.taskmanager.io.FileTaskStorage;
+import com.collins.taskmanager.io.LogTaskStorage;
+import com.collins.taskmanager.io.TaskStorage;
 import com.collins.taskmanager.model.Task;
 import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
 import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.repository.ConcurrentTaskRepository;
 import com.collins.taskmanager.repository.InMemoryTaskRepository;
+import com.collins.taskmanager.repository.SearchableTaskRepository;
+import com.collins.taskmanager.repository.TaskCursor;
+import com.collins.taskmanager.repository.TaskPage;
 import com.collins.taskmanager.repository.TaskRepository;
+import com.collins.taskmanager.server.TaskHttpServer;
+import com.collins.taskmanager.service.AutoSaver;
 import com.collins.taskmanager.service.TaskService;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * Console-based entry point for the Task Manager application.
@@ -20,35 +44,94 @@ import java.util.Scanner;
  * - Wire together repository, service, and file storage.
  * - Load existing tasks from disk at startup.
  * - Present an interactive menu for creating, listing, updating,
- *   filtering, deleting, and saving tasks.
+ *   filtering, searching, deleting, and saving tasks,
+ *   and show dashboard statistics.
+ * <p>
+ * Tasks are persisted to an append-only log with periodic snapshots
+ * in the tasks-data directory by default.
+ * Pass --storage=text to use the original fileStorage.txt format instead,
+ * or --storage=binary for the compact binary format in tasks.bin.
+ * With the text format, --parallel-load parses the file on all cores at startup.
+ * Changes are written in the background by an {@link AutoSaver} every few
+ * seconds; menu option 6 writes them immediately.
+ * <p>
+ * --batch=FILE runs the commands in FILE instead of the menu, and --batch alone
+ * reads them from standard input; see {@link BatchRunner} for the commands.
+ * <p>
+ * --server=PORT serves the tasks as a JSON API on localhost instead of the menu
+ * (--server alone uses port 8080) until the process is stopped; see {@link TaskHttpServer}.
+ * Requests run concurrently, so server mode keeps the tasks in a ConcurrentTaskRepository.
  */
 public class TaskManagerApp {
+
+    private static final Path LOG_DIRECTORY = Path.of("tasks-data");
+    private static final Path BINARY_FILE = Path.of("tasks.bin");
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    // Scripts change tasks far faster than a person, so flush in bigger bursts.
+    private static final int BATCH_DIRTY_THRESHOLD = 100_000;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
     public static void main(String[] args) {
 
         // Set up core components:
-        // - In-memory repository for storing tasks during this run
+        // - In-memory repository for storing tasks during this run,
+        //   with a full-text index over titles and descriptions
         // - Service layer for business logic
         // - File-based storage for persistence across runs
-        TaskRepository repo = new InMemoryTaskRepository();
+        int serverPort = serverPort(args);
+        TaskRepository repo = serverPort >= 0
+                ? new ConcurrentTaskRepository()
+                : new SearchableTaskRepository(new InMemoryTaskRepository());
         TaskService service = new TaskService(repo);
-        FileTaskStorage taskStorage = new FileTaskStorage();
+        TaskStorage taskStorage = openStorage(args);
 
         // Load previously saved tasks from disk (if any),
         // and push them into the repository so they are available in memory.
         try{
-            List<Task> tasks = taskStorage.loadAll();
-            for (Task task:tasks) {
-                repo.save(task);
+            // First run on the log: carry over tasks saved by the text format.
+            if(taskStorage instanceof LogTaskStorage && !Files.exists(LOG_DIRECTORY)){
+                taskStorage.loadAll();
+                taskStorage.saveAll(new FileTaskStorage().loadAll());
+            }
+            if(taskStorage instanceof BinaryTaskStorage && !Files.exists(BINARY_FILE)){
+                BinaryTaskStorage.convert(new FileTaskStorage(), BINARY_FILE);
+            }
+
+            if(taskStorage instanceof FileTaskStorage fileStorage && Arrays.asList(args).contains("--parallel-load")){
+                // Parse on all cores, then insert in file order so ids come out the same as a sequential load.
+                repo.saveAll(fileStorage.loadAllParallel(ForkJoinPool.commonPool()));
+            }else{
+                loadInBatches(taskStorage, repo);
             }
 
         }catch (IOException e){
             System.out.println(e.getMessage());
         }
+
+        if(serverPort >= 0){
+            runServer(serverPort, service, taskStorage);
+            return;
+        }
+
+        String script = batchScript(args);
+        if(script != null){
+            AutoSaver autoSaver = new AutoSaver(service, taskStorage, AutoSaver.DEFAULT_INTERVAL, BATCH_DIRTY_THRESHOLD);
+            autoSaver.start();
+            runBatch(script, service, autoSaver);
+            if(!shutdown(autoSaver, taskStorage)){
+                System.exit(1);
+            }
+            return;
+        }
+
+        AutoSaver autoSaver = new AutoSaver(service, taskStorage);
+        autoSaver.start();
         Scanner scanner = new Scanner(System.in);
         int num=0;
 
         // Track current number of tasks in memory for some menu checks.
-        int size = service.getAllTasks().size();
+        int size = service.count();
 
         // Main interactive loop:
         // Continues until the user chooses option 7 (Exit).
@@ -65,7 +148,11 @@ public class TaskManagerApp {
             System.out.println();
             System.out.print("Enter 6 to Save Tasks to File");
             System.out.println();
-            System.out.print("Enter 7 to Exit: ");
+            System.out.print("Enter 7 to Exit");
+            System.out.println();
+            System.out.print("Enter 8 to Search Tasks");
+            System.out.println();
+            System.out.print("Enter 9 to Show Task Statistics: ");
             try{
                 // Read the menu choice from the user.
                 num = Integer.parseInt(scanner.nextLine());
@@ -87,7 +174,7 @@ public class TaskManagerApp {
                     task = service.createTask(task);
 
                      // Update cached size after creating a new task.
-                    size= service.getAllTasks().size();
+                    size= service.count();
                     System.out.println("Task created with Id: "+task.getId());
                     System.out.println();
 
@@ -97,7 +184,8 @@ public class TaskManagerApp {
                     if (size==0){
                         System.out.println("Task List is Empty");
                     }else {
-                        service.getAllTasks().forEach(System.out::println);
+                        int pageSize = readPageSize(scanner);
+                        printPages(scanner, after -> service.getTasksPage(after, pageSize));
                     }
                     System.out.println();
 
@@ -132,11 +220,8 @@ public class TaskManagerApp {
                             System.out.println();
                             System.out.print("Enter Status to Filter By: ");
                             TaskStatus status = TaskStatus.valueOf(scanner.nextLine().toUpperCase());
-                            if(service.filterByStatus(status).size()>0) {
-                                service.filterByStatus(status).forEach(System.out::println);
-                            }else{
-                                System.out.println("No Tasks matched that filter");
-                            }
+                            int pageSize = readPageSize(scanner);
+                            printPages(scanner, after -> service.filterByStatusPage(status, after, pageSize));
                             System.out.println();
 
                             // 4b – Filter by priority.
@@ -144,22 +229,16 @@ public class TaskManagerApp {
                             System.out.println();
                             System.out.print("Enter Priority to Filter By: ");
                             TaskPriority priority = TaskPriority.valueOf(scanner.nextLine().toUpperCase());
-                            if(service.filterByPriority(priority).size()>0) {
-                                service.filterByPriority(priority).forEach(System.out::println);
-                            }else{
-                                System.out.println("No Tasks matched that filter");
-                            }
+                            int pageSize = readPageSize(scanner);
+                            printPages(scanner, after -> service.filterByPriorityPage(priority, after, pageSize));
 
                             // 4c – Filter by tasks due before a given date.
                         }else if(c.equals("c")){
                             System.out.println();
                             System.out.print("Enter Due Date Before to Filter By: ");
                             LocalDate date = LocalDate.parse(scanner.nextLine());
-                            if(service.filterByDueDateBefore(date).size()>0) {
-                                service.filterByDueDateBefore(date).forEach(System.out::println);
-                            }else{
-                                System.out.println("No Tasks matched that filter");
-                            }
+                            int pageSize = readPageSize(scanner);
+                            printPages(scanner, after -> service.filterByDueDateBeforePage(date, after, pageSize));
                         }
 
                         // 4d – Filter by tasks due after a given date.
@@ -167,11 +246,8 @@ public class TaskManagerApp {
                             System.out.println();
                             System.out.print("Enter Due Date After to Filter By: ");
                             LocalDate date = LocalDate.parse(scanner.nextLine());
-                            if(service.filterByDueDateAfter(date).size()>0) {
-                                service.filterByDueDateAfter(date).forEach(System.out::println);
-                            }else{
-                                System.out.println("No Tasks matched that filter");
-                            }
+                            int pageSize = readPageSize(scanner);
+                            printPages(scanner, after -> service.filterByDueDateAfterPage(date, after, pageSize));
 
                             // Invalid sub-option for filter menu.
                         }else{
@@ -192,7 +268,7 @@ public class TaskManagerApp {
                         service.deleteTask(id);
 
                         // Update cached size after deletion.
-                        size = service.getAllTasks().size();
+                        size = service.count();
                         System.out.println("Task Deleted!");
                     }catch (RuntimeException e){
                         System.out.println(e.getMessage());
@@ -201,27 +277,44 @@ public class TaskManagerApp {
 
                      // 6 – Save all current tasks to the backing file.
                 }else if(num==6){
-                    try{
-                        System.out.println();
-                        taskStorage.saveAll(service.getAllTasks());
+                    System.out.println();
+                    if(!service.hasChanges()){
+                        System.out.println("No changes to save");
+                    }else if(saveChanges(autoSaver)){
                         System.out.println("Tasks saved successfully!");
-                        System.out.println();
-                    }catch (IOException e) {
-                        System.out.println(e.getMessage());
                     }
+                    System.out.println();
 
-                     // 7 – Exit the program after saving once more.
+                     // 7 – Exit the program; the autosaver writes what is left below.
                 }else if(num==7){
+                    System.out.println();
+                    System.out.println("GoodBye!!!");
+                    System.out.println();
+
+                     // 8 – Search tasks by words in their title or description.
+                }else if(num==8){
+                    System.out.println();
+                    System.out.print("Enter Search Words (OR between alternatives, * after a word for prefixes): ");
                     try{
-                        System.out.println();
-                        taskStorage.saveAll(service.getAllTasks());
-                        System.out.println("GoodBye!!!");
-                        System.out.println();
-                    }catch (IOException e) {
+                        List<Task> found = service.search(scanner.nextLine());
+                        if(found.isEmpty()){
+                            System.out.println("No Tasks matched that search");
+                        }else{
+                            found.forEach(System.out::println);
+                            System.out.println(found.size() + " Task(s) found");
+                        }
+                    }catch (RuntimeException e){
                         System.out.println(e.getMessage());
                     }
+                    System.out.println();
+
+                     // 9 – Show counts by status and priority, overdue and due this week.
+                }else if(num==9){
+                    System.out.println();
+                    printStatistics(service.getStatistics());
+                    System.out.println();
 
-                     // Any other number outside 1–7.
+                     // Any other number outside 1–9.
                 }else{
                      System.out.println();
                      System.out.println("Number entered is out of range! Try Again!");
@@ -235,5 +328,228 @@ public class TaskManagerApp {
 
         // Clean up scanner resource before exiting the application
         scanner.close();
+
+        if(!shutdown(autoSaver, taskStorage)){
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Stops background saving, writes the remaining changes and lets a
+     * background log compaction finish before the JVM exits.
+     * If the changes cannot be written, says so on standard error.
+     *
+     * @return true if every change was saved
+     */
+    private static boolean shutdown(AutoSaver autoSaver, TaskStorage taskStorage) {
+        boolean saved = true;
+        try{
+            autoSaver.close();
+        }catch (IOException e){
+            System.err.println("Tasks could not be saved, changes made since the last save are lost: " + e.getMessage());
+            saved = false;
+        }
+        if(taskStorage instanceof LogTaskStorage logStorage){
+            logStorage.close();
+        }
+        return saved;
+    }
+
+    /**
+     * @return the port given with --server=PORT, the default port for --server,
+     *         or -1 to run the interactive menu
+     */
+    private static int serverPort(String[] args) {
+        for (String arg : args) {
+            if(arg.equals("--server")){
+                return TaskHttpServer.DEFAULT_PORT;
+            }
+            if(arg.startsWith("--server=")){
+                return Integer.parseInt(arg.substring("--server=".length()));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Starts the HTTP API on the loopback interface and returns; the server's own
+     * threads keep the JVM running. A shutdown hook (Ctrl+C) stops the server,
+     * then writes the remaining changes.
+     */
+    private static void runServer(int port, TaskService service, TaskStorage taskStorage) {
+        AutoSaver autoSaver = new AutoSaver(service, taskStorage);
+        TaskHttpServer server;
+        try{
+            server = new TaskHttpServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        }catch (IOException e){
+            System.out.println("Cannot start server on port " + port + ": " + e.getMessage());
+            shutdown(autoSaver, taskStorage);
+            return;
+        }
+        autoSaver.start();
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            shutdown(autoSaver, taskStorage);
+        }, "task-server-shutdown"));
+        System.out.println("Serving " + service.count() + " tasks at http://localhost:" + server.getPort() + "/tasks");
+    }
+
+    /**
+     * @return the script file given with --batch=FILE, "-" for --batch (standard input),
+     *         or null to run the interactive menu
+     */
+    private static String batchScript(String[] args) {
+        for (String arg : args) {
+            if(arg.equals("--batch")){
+                return "-";
+            }
+            if(arg.startsWith("--batch=")){
+                return arg.substring("--batch=".length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs a command script through a {@link BatchRunner}. Results go to standard
+     * output through one buffered writer; the throughput summary goes to standard
+     * error so it stays out of the results.
+     */
+    private static void runBatch(String script, TaskService service, AutoSaver autoSaver) {
+        long start = System.nanoTime();
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        BatchRunner runner = new BatchRunner(service, autoSaver, out);
+        try (BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE)
+                : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8)) {
+            runner.run(in);
+        }catch (IOException e){
+            System.err.println(e.getMessage());
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.err.printf("Processed %d commands (%d failed) in %d ms, %d commands/s%n",
+                runner.getCommands(), runner.getFailures(), millis, runner.getCommands() * 1000 / millis);
+    }
+
+    /**
+     * Prints the dashboard: totals per status and priority, a status x priority
+     * table, and the overdue and due-this-week counts.
+     */
+    private static void printStatistics(TaskStatistics stats) {
+        System.out.println("Total Tasks: " + stats.getTotal());
+        for (TaskStatus status : TaskStatus.values()) {
+            System.out.println(status + ": " + stats.count(status));
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            System.out.println(priority + ": " + stats.count(priority));
+        }
+        System.out.println();
+        System.out.printf("%-12s", "");
+        for (TaskPriority priority : TaskPriority.values()) {
+            System.out.printf("%8s", priority);
+        }
+        System.out.println();
+        for (TaskStatus status : TaskStatus.values()) {
+            System.out.printf("%-12s", status);
+            for (TaskPriority priority : TaskPriority.values()) {
+                System.out.printf("%8d", stats.count(status, priority));
+            }
+            System.out.println();
+        }
+        System.out.println();
+        System.out.println("Overdue: " + stats.getOverdue());
+        System.out.println("Due in the Next 7 Days: " + stats.getDueThisWeek());
+    }
+
+    /**
+     * Asks for a page size, falling back to the default on an empty answer.
+     */
+    private static int readPageSize(Scanner scanner) {
+        System.out.print("Enter Page Size (press Enter for " + DEFAULT_PAGE_SIZE + "): ");
+        String input = scanner.nextLine().trim();
+        int pageSize = input.isEmpty() ? DEFAULT_PAGE_SIZE : Integer.parseInt(input);
+        if(pageSize <= 0){
+            throw new NumberFormatException("Page size must be positive");
+        }
+        System.out.println();
+        return pageSize;
+    }
+
+    /**
+     * Prints the first page returned by the given query and keeps fetching the
+     * next page for as long as the user asks for it and more tasks remain.
+     *
+     * @param fetch returns the page after the given cursor (null for the first page)
+     */
+    private static void printPages(Scanner scanner, Function<TaskCursor, TaskPage> fetch) {
+        TaskPage page = fetch.apply(null);
+        if(page.isEmpty()){
+            System.out.println("No Tasks matched that filter");
+            return;
+        }
+        while (true) {
+            page.getTasks().forEach(System.out::println);
+            if(!page.hasNext()){
+                return;
+            }
+            System.out.print("Enter n for Next Page, anything else to go back: ");
+            if(!scanner.nextLine().trim().equalsIgnoreCase("n")){
+                return;
+            }
+            System.out.println();
+            page = fetch.apply(page.getNext());
+        }
+    }
+
+    /**
+     * Writes what changed since the last save right away, through the autosaver
+     * so it never overlaps a background flush. If the write fails the changes
+     * stay pending for the next save.
+     *
+     * @return true if the changes (if any) were persisted
+     */
+    private static boolean saveChanges(AutoSaver autoSaver) {
+        try{
+            autoSaver.flush();
+            return true;
+        }catch (IOException e){
+            System.out.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Streams tasks from storage into the repository in saveAll batches, so the
+     * repository does its bookkeeping once per batch without a list of every task being built first.
+     */
+    private static void loadInBatches(TaskStorage taskStorage, TaskRepository repo) throws IOException {
+        List<Task> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        taskStorage.loadEach(task -> {
+            batch.add(task);
+            if(batch.size() == LOAD_BATCH_SIZE){
+                repo.saveAll(batch);
+                batch.clear();
+            }
+        });
+        repo.saveAll(batch);
+    }
+
+    /**
+     * Chooses the storage backend from the command line.
+     * "--storage=text" selects the original fileStorage.txt format,
+     * "--storage=binary" the binary format, and anything else
+     * (or no argument) the append-only log.
+     */
+    private static TaskStorage openStorage(String[] args) {
+        for (String arg : args) {
+            if(arg.equals("--storage=text")){
+                return new FileTaskStorage();
+            }
+            if(arg.equals("--storage=binary")){
+                return new BinaryTaskStorage(BINARY_FILE);
+            }
+        }
+        return new LogTaskStorage(LOG_DIRECTORY);
     }
 }
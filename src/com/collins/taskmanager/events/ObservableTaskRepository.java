@@ -0,0 +1,250 @@
+package com.collins.taskmanager.events;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.repository.ForwardingTaskRepository;
+import com.collins.taskmanager.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Wraps a TaskRepository and publishes every change it makes to a
+ * {@link TaskEventRing}: CREATED or UPDATED for a save, DELETED for a delete of an
+ * existing task and CLEARED for deleteAll. Reads go straight to the wrapped repository.
+ * <p>
+ * An event is published after the wrapped call returns, so a consumer never sees a
+ * change before it is visible in the repository.
+ * - A write locks the stripe that owns its task id and claims its event's sequence
+ *   before unlocking, so the events of one task follow the order its writes were
+ *   applied in, and the CREATED or UPDATED decision sees no other write to it in between.
+ * - Batch writes and deleteAll lock every stripe, so their events are ordered
+ *   against those of every other write. Events of different tasks written at the
+ *   same time may appear in either order.
+ * - The event is filled in after the stripe is unlocked. In BLOCK mode a writer
+ *   waiting for a slow consumer holds no lock, and writers of other tasks carry on
+ *   until they need a slot themselves.
+ * Reads do not lock. All writes must go through this wrapper for the ordering to hold.
+ * Subscribe consumers through {@link #getEvents()}.
+ */
+public class ObservableTaskRepository extends ForwardingTaskRepository {
+
+    private final TaskEventRing events;
+    private final ReentrantLock[] stripes;
+
+    public ObservableTaskRepository(TaskRepository delegate) {
+        this(delegate, new TaskEventRing());
+    }
+
+    public ObservableTaskRepository(TaskRepository delegate, TaskEventRing events) {
+        super(delegate);
+        this.events = events;
+        int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public TaskEventRing getEvents() {
+        return events;
+    }
+
+    /**
+     * Saves the task and publishes CREATED if it had no id yet or its id was not
+     * stored, UPDATED otherwise.
+     */
+    @Override
+    public Task save(Task entity) {
+        if(entity.getId() == 0){
+            return create(entity);
+        }
+        ReentrantLock lock = stripeFor(entity.getId());
+        boolean created;
+        Task saved;
+        long sequence;
+        lock.lock();
+        try{
+            created = delegate.findById(entity.getId()) == null;
+            saved = delegate.save(entity);
+            sequence = events.claim(1);
+        }finally {
+            lock.unlock();
+        }
+        events.publish(sequence, created ? TaskEvent.Type.CREATED : TaskEvent.Type.UPDATED, saved.getId(), saved);
+        return saved;
+    }
+
+    // The id is only known once the task is saved, so the sequence is claimed before the
+    // save: any write of the new task comes after it and claims a later one. Holding one
+    // stripe keeps batch writes and deleteAll from landing in between.
+    private Task create(Task entity) {
+        ReentrantLock lock = stripes[ThreadLocalRandom.current().nextInt(stripes.length)];
+        lock.lock();
+        long sequence = events.claim(1);
+        Task saved = null;
+        try{
+            saved = delegate.save(entity);
+        }finally {
+            lock.unlock();
+            if(saved == null){
+                events.skip(sequence);
+            }
+        }
+        events.publish(sequence, TaskEvent.Type.CREATED, saved.getId(), saved);
+        return saved;
+    }
+
+    /**
+     * Changes the task through the wrapped repository's update and publishes UPDATED
+     * if it existed.
+     */
+    @Override
+    public Task update(Integer id, UnaryOperator<Task> change) {
+        ReentrantLock lock = stripeFor(id);
+        Task saved;
+        long sequence = 0;
+        lock.lock();
+        try{
+            saved = delegate.update(id, change);
+            if(saved != null){
+                sequence = events.claim(1);
+            }
+        }finally {
+            lock.unlock();
+        }
+        if(saved != null){
+            events.publish(sequence, TaskEvent.Type.UPDATED, saved.getId(), saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Changes the tasks through the wrapped repository's updateAll and publishes one
+     * UPDATED event per task, in the order of the ids, if they all existed.
+     */
+    @Override
+    public List<Task> updateAll(Collection<Integer> ids, UnaryOperator<Task> change) {
+        List<Task> saved;
+        long first = 0;
+        lockAll();
+        try{
+            saved = delegate.updateAll(ids, change);
+            if(saved != null){
+                first = events.claim(saved.size());
+            }
+        }finally {
+            unlockAll();
+        }
+        if(saved != null){
+            for (int i = 0; i < saved.size(); i++) {
+                Task task = saved.get(i);
+                events.publish(first + i, TaskEvent.Type.UPDATED, task.getId(), task);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Saves the batch through the wrapped repository's saveAll and publishes one
+     * event per task, in batch order.
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        boolean[] created = new boolean[entities.size()];
+        Set<Integer> seen = new HashSet<>();
+        List<Task> saved;
+        long first;
+        lockAll();
+        try{
+            int i = 0;
+            for (Task entity : entities) {
+                // A second save of the same id within the batch is an update of the first.
+                created[i++] = entity.getId() == 0 || (seen.add(entity.getId()) && delegate.findById(entity.getId()) == null);
+            }
+            saved = delegate.saveAll(entities);
+            first = events.claim(saved.size());
+        }finally {
+            unlockAll();
+        }
+        for (int i = 0; i < created.length; i++) {
+            Task task = saved.get(i);
+            events.publish(first + i, created[i] ? TaskEvent.Type.CREATED : TaskEvent.Type.UPDATED, task.getId(), task);
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        ReentrantLock lock = stripeFor(id);
+        long sequence;
+        lock.lock();
+        try{
+            if(delegate.findById(id) == null){
+                return;
+            }
+            delegate.deleteById(id);
+            sequence = events.claim(1);
+        }finally {
+            lock.unlock();
+        }
+        events.publish(sequence, TaskEvent.Type.DELETED, id, null);
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ids) {
+        List<Integer> existing = new ArrayList<>(ids.size());
+        long first;
+        lockAll();
+        try{
+            for (Integer id : ids) {
+                if(delegate.findById(id) != null){
+                    existing.add(id);
+                }
+            }
+            delegate.deleteAllById(existing);
+            first = events.claim(existing.size());
+        }finally {
+            unlockAll();
+        }
+        for (int i = 0; i < existing.size(); i++) {
+            events.publish(first + i, TaskEvent.Type.DELETED, existing.get(i), null);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        long sequence;
+        lockAll();
+        try{
+            delegate.deleteAll();
+            sequence = events.claim(1);
+        }finally {
+            unlockAll();
+        }
+        events.publish(sequence, TaskEvent.Type.CLEARED, 0, null);
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(int id) {
+        // Spread the bits so sequential ids don't all land in neighbouring stripes.
+        int h = id * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,64 @@
+package com.collins.taskmanager.events;
+
+import com.collins.taskmanager.model.Task;
+
+/**
+ * One change published by an {@link ObservableTaskRepository}.
+ * <p>
+ * Event objects are reused: a consumer fills the same instance for every event it
+ * reads, so a handler must copy whatever it wants to keep once the callback returns.
+ */
+public final class TaskEvent {
+
+    public enum Type {
+        CREATED,        // A task with a new id was saved.
+        UPDATED,        // A task with an existing id was saved again.
+        DELETED,        // A task was removed by id; getTask() is null.
+        CLEARED         // Every task was removed; getTaskId() is 0 and getTask() is null.
+    }
+
+    long sequence;
+    Type type;
+    int taskId;
+    Task task;
+
+    TaskEvent() {}
+
+    /**
+     * Position of this event in the stream. Sequences start at 0 and increase by one
+     * per published event, so a consumer can resume from the last one it handled.
+     * A write that fails after claiming its sequence leaves that one unused.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * The task as it was saved.
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    void copyFrom(TaskEvent other) {
+        type = other.type;
+        taskId = other.taskId;
+        task = other.task;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent: " +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", taskId=" + taskId;
+    }
+}
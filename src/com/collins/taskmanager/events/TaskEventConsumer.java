@@ -0,0 +1,149 @@
+package com.collins.taskmanager.events;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reads every event of a {@link TaskEventRing} in sequence order and hands it to a
+ * {@link TaskEventHandler}.
+ * <p>
+ * A consumer is driven either by calling {@link #poll(int)} from one thread at a
+ * time or by {@link #start(String)}, which polls on a background daemon thread.
+ * {@link #close()} unsubscribes it, so it no longer holds back writers of a
+ * {@link TaskEventRing.BackPressure#BLOCK} ring.
+ */
+public final class TaskEventConsumer implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int SPIN_LIMIT = 100;
+    private static final int YIELD_LIMIT = 200;
+    private static final long MAX_PARK_NANOS = 100_000;
+
+    private final TaskEventRing ring;
+    private final TaskEventHandler handler;
+    // Filled from the ring slot for every event, so reading allocates nothing.
+    private final TaskEvent event = new TaskEvent();
+    private volatile long position;
+    private volatile boolean closed;
+    private Thread thread;
+
+    TaskEventConsumer(TaskEventRing ring, TaskEventHandler handler, long position) {
+        this.ring = ring;
+        this.handler = handler;
+        this.position = position;
+    }
+
+    /**
+     * @return the sequence of the next event this consumer will handle
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * @return number of published events this consumer has not handled yet
+     */
+    public long lag() {
+        return Math.max(0, ring.nextSequence() - position);
+    }
+
+    /**
+     * Handles up to maxEvents published events without waiting for more.
+     * If the handler throws, the consumer stays on that event and the next poll
+     * delivers it again.
+     *
+     * @return number of events handed to the handler
+     */
+    public int poll(int maxEvents) {
+        int handled = 0;
+        long next = position;
+        while (handled < maxEvents) {
+            TaskEventRing.Slot slot = ring.slot(next);
+            long stamp = slot.stamp;
+            if(stamp == next){
+                event.copyFrom(slot.event);
+                // The copy must be complete before the stamp is checked again.
+                VarHandle.loadLoadFence();
+                if(slot.stamp == next){
+                    // A skipped sequence has no type; it is stepped over without a callback.
+                    if(event.type != null){
+                        event.sequence = next;
+                        handler.onEvent(event);
+                        handled++;
+                    }
+                    position = ++next;
+                    continue;
+                }
+            }else if(stamp < next){
+                // Not published yet, or a writer is still filling the slot. A writer that
+                // laps this consumer leaves a larger stamp once it is done.
+                break;
+            }
+            // A writer lapped this consumer and reused the slot: skip to the oldest
+            // event that can still be in the ring.
+            long resume = Math.max(next + 1, ring.nextSequence() - ring.capacity());
+            handler.onOverrun(next, resume);
+            position = next = resume;
+        }
+        event.task = null;
+        return handled;
+    }
+
+    /**
+     * Polls on a new daemon thread until {@link #close()}. The thread spins briefly
+     * when the ring is empty, then backs off to short parks, so writers never have
+     * to wake it. If the handler throws, the consumer is closed and the exception
+     * goes to the thread's uncaught exception handler.
+     */
+    public synchronized void start(String threadName) {
+        if(thread != null || closed){
+            throw new IllegalStateException("Consumer already started or closed");
+        }
+        thread = new Thread(this::run, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        int idle = 0;
+        try{
+            while (!closed) {
+                if(poll(BATCH_SIZE) > 0){
+                    idle = 0;
+                }else if(++idle < SPIN_LIMIT){
+                    Thread.onSpinWait();
+                }else if(idle < YIELD_LIMIT){
+                    Thread.yield();
+                }else{
+                    LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, (idle - YIELD_LIMIT + 1) * 1_000L));
+                }
+            }
+        }catch (RuntimeException e){
+            closed = true;
+            ring.unsubscribe(this);
+            throw e;
+        }
+    }
+
+    /**
+     * Unsubscribes from the ring and stops the polling thread, waiting for it to
+     * finish the event it is handling.
+     */
+    @Override
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            closed = true;
+            running = thread;
+        }
+        ring.unsubscribe(this);
+        if(running != null && running != Thread.currentThread()){
+            LockSupport.unpark(running);
+            try{
+                running.join();
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
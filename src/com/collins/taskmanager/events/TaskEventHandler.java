@@ -0,0 +1,20 @@
+package com.collins.taskmanager.events;
+
+/**
+ * Receives the events read by a {@link TaskEventConsumer}, in sequence order.
+ */
+public interface TaskEventHandler {
+
+    /**
+     * Handles one event. The event object is reused after this call returns.
+     */
+    void onEvent(TaskEvent event);
+
+    /**
+     * Called when the consumer fell so far behind that writers overwrote events it had
+     * not read yet (only with {@link TaskEventRing.BackPressure#OVERWRITE}).
+     * Events with sequences in [from, to) were lost; a handler that needs every change
+     * should resynchronize, for example by reloading the affected data.
+     */
+    default void onOverrun(long from, long to) {}
+}
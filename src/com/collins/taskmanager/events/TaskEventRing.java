@@ -0,0 +1,203 @@
+package com.collins.taskmanager.events;
+
+import com.collins.taskmanager.model.Task;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring of preallocated event slots that many writers publish into and
+ * every subscribed {@link TaskEventConsumer} reads in full.
+ * <p>
+ * - A writer claims the next sequence with one atomic increment, fills the slot
+ *   at sequence & mask in place and then stamps the slot with its sequence.
+ *   Publishing allocates nothing and takes no lock. Claiming and filling can also
+ *   be done as two steps, so a writer can fix an event's place in the stream while
+ *   it holds a lock and fill it, waiting for capacity if need be, after releasing it.
+ * - Each consumer keeps its own read position, so consumers never wait on each
+ *   other and can resume from any sequence still held in the ring.
+ * - What happens when a writer laps the slowest consumer is chosen by
+ *   {@link BackPressure}.
+ */
+public final class TaskEventRing {
+
+    public enum BackPressure {
+        /**
+         * Writers never wait: they overwrite the oldest slot, and a consumer that
+         * falls a full ring behind skips ahead and is told through
+         * {@link TaskEventHandler#onOverrun(long, long)}. This is the default.
+         */
+        OVERWRITE,
+        /**
+         * Writers wait until the slowest subscribed consumer has read the slot they
+         * are about to reuse, so no consumer ever misses an event.
+         */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Slot stamp while a writer is filling it; never a valid sequence.
+    static final long WRITING = -1;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final BackPressure backPressure;
+    private final AtomicLong claimed = new AtomicLong();
+    private final CopyOnWriteArrayList<TaskEventConsumer> consumers = new CopyOnWriteArrayList<>();
+    // Lowest consumer position seen by a blocked writer, so most publishes skip the scan.
+    private volatile long gatingCache;
+
+    public TaskEventRing() {
+        this(DEFAULT_CAPACITY, BackPressure.OVERWRITE);
+    }
+
+    /**
+     * @param capacity     number of slots, rounded up to a power of two
+     * @param backPressure what a writer does when the ring is full
+     */
+    public TaskEventRing(int capacity, BackPressure backPressure) {
+        if(capacity <= 0 || capacity > 1 << 30){
+            throw new IllegalArgumentException("Ring capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i - size);
+        }
+        mask = size - 1;
+        this.backPressure = backPressure;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public BackPressure getBackPressure() {
+        return backPressure;
+    }
+
+    /**
+     * @return the sequence the next published event will get
+     */
+    public long nextSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * Publishes one event.
+     *
+     * @return the sequence assigned to the event
+     */
+    public long publish(TaskEvent.Type type, int taskId, Task task) {
+        long sequence = claim(1);
+        publish(sequence, type, taskId, task);
+        return sequence;
+    }
+
+    /**
+     * Reserves the next count sequences without waiting for capacity. Every claimed
+     * sequence must then be filled with {@link #publish(long, TaskEvent.Type, int, Task)}
+     * or {@link #skip(long)}, because consumers stop at the first one that is not.
+     *
+     * @return the first of the claimed sequences
+     */
+    long claim(int count) {
+        return claimed.getAndAdd(count);
+    }
+
+    /**
+     * Marks a claimed sequence whose write failed as empty; consumers step over it
+     * without calling their handler.
+     */
+    void skip(long sequence) {
+        publish(sequence, null, 0, null);
+    }
+
+    // Fills the slot of a claimed sequence, first waiting for capacity in BLOCK mode.
+    void publish(long sequence, TaskEvent.Type type, int taskId, Task task) {
+        if(backPressure == BackPressure.BLOCK){
+            awaitCapacity(sequence);
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.stamp = WRITING;
+        // Keeps the field writes below from becoming visible before the WRITING stamp.
+        VarHandle.storeStoreFence();
+        slot.event.sequence = sequence;
+        slot.event.type = type;
+        slot.event.taskId = taskId;
+        slot.event.task = task;
+        slot.stamp = sequence;
+    }
+
+    /**
+     * Subscribes a consumer that starts with the next published event.
+     */
+    public TaskEventConsumer subscribe(TaskEventHandler handler) {
+        return subscribe(handler, claimed.get());
+    }
+
+    /**
+     * Subscribes a consumer that starts at the given sequence, for example one past
+     * the last event a previous consumer handled. If that event has already left the
+     * ring the consumer reports the gap through {@link TaskEventHandler#onOverrun(long, long)}.
+     */
+    public TaskEventConsumer subscribe(TaskEventHandler handler, long fromSequence) {
+        if(fromSequence < 0){
+            throw new IllegalArgumentException("Sequence must not be negative: " + fromSequence);
+        }
+        TaskEventConsumer consumer = new TaskEventConsumer(this, handler, fromSequence);
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    void unsubscribe(TaskEventConsumer consumer) {
+        consumers.remove(consumer);
+    }
+
+    Slot slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    // Waits until every consumer has read the event that last used this sequence's slot.
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - slots.length;
+        if(wrapPoint < gatingCache){
+            return;
+        }
+        int spins = 0;
+        long lowest;
+        while (wrapPoint >= (lowest = lowestConsumerPosition(sequence))) {
+            if(++spins < 100){
+                Thread.onSpinWait();
+            }else{
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        gatingCache = lowest;
+    }
+
+    private long lowestConsumerPosition(long sequence) {
+        long lowest = sequence;
+        for (TaskEventConsumer consumer : consumers) {
+            lowest = Math.min(lowest, consumer.position());
+        }
+        return lowest;
+    }
+
+    /**
+     * One preallocated ring entry. The stamp is written last by the writer and read
+     * first and last by a consumer, so a consumer can tell a slot that was refilled
+     * while it was copying it.
+     */
+    static final class Slot {
+        volatile long stamp;
+        final TaskEvent event = new TaskEvent();
+
+        Slot(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+}
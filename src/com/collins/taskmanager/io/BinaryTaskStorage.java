@@ -0,0 +1,337 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary task storage.
+ * <p>
+ * Layout (big-endian):
+ * - header: int magic "TSKB", short version, short reserved, long record count
+ * - per task: int id, byte status ordinal, byte priority ordinal, int due date as
+ *   epoch day, long createdAt and long updatedAt as epoch millis (UTC), then title
+ *   and description as an int byte length followed by UTF-8 bytes
+ * Null values are stored as -1 (ordinals and string lengths), Integer.MIN_VALUE
+ * (due date) or Long.MIN_VALUE (timestamps). Timestamps keep millisecond precision.
+ * A title or description may take at most 64 MB in UTF-8, the size of one read window.
+ * <p>
+ * Nothing needs to be re-parsed on load: the file is read through memory-mapped
+ * windows of a FileChannel, and each field is a fixed-width read. Saves go to a
+ * temp file that is renamed over the old one, so a crash never leaves a half-written file.
+ */
+public class BinaryTaskStorage implements TaskStorage {
+
+    static final int MAGIC = 0x54534B42;        // "TSKB"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int FIXED_RECORD_SIZE = 4 + 1 + 1 + 4 + 8 + 8;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    private static final long WINDOW_SIZE = 64L << 20;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Path file;
+
+    public BinaryTaskStorage(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Copies every task from the given storage into a binary file, one task at a time.
+     *
+     * @param source storage to read from, for example a FileTaskStorage on fileStorage.txt
+     * @param target binary file to create or replace
+     * @return number of tasks converted
+     * @throws IOException if reading the source or writing the target fails
+     */
+    public static long convert(TaskStorage source, Path target) throws IOException {
+        try (Writer writer = new Writer(target)) {
+            try{
+                source.loadEach(writer::writeUnchecked);
+            }catch (UncheckedWriteException e){
+                throw e.getCause();
+            }
+            writer.commit();
+            return writer.count;
+        }
+    }
+
+    /**
+     * Writes all tasks to the binary file, replacing its previous contents.
+     *
+     * @param tasks list of tasks to write
+     * @throws IOException if an error occurs while writing the file
+     */
+    @Override
+    public void saveAll(List<Task> tasks) throws IOException {
+        try (Writer writer = new Writer(file)) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+            writer.commit();
+        }
+    }
+
+    /**
+     * Loads all tasks from the binary file.
+     *
+     * @return list of tasks in file order, or an empty list if the file does not exist
+     * @throws IOException if the file cannot be read or is not a valid task file
+     */
+    @Override
+    public List<Task> loadAll() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        loadEach(tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Streams tasks from the binary file through memory-mapped windows, so only
+     * one window of the file needs to be resident at a time.
+     *
+     * @param consumer receives every task in file order
+     * @throws IOException if the file cannot be read or is not a valid task file
+     */
+    @Override
+    public void loadEach(Consumer<? super Task> consumer) throws IOException {
+        if(!Files.exists(file)){
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Reader reader = new Reader(channel);
+            reader.ensure(HEADER_SIZE);
+            if(reader.buffer.getInt() != MAGIC){
+                throw new IOException("Not a binary task file: " + file);
+            }
+            short version = reader.buffer.getShort();
+            if(version != VERSION){
+                throw new IOException("Unsupported binary task file version " + version + ": " + file);
+            }
+            reader.buffer.getShort();
+            long count = reader.buffer.getLong();
+            for (long i = 0; i < count; i++) {
+                consumer.accept(reader.readTask());
+            }
+        }
+    }
+
+    /**
+     * Sequential reader over a file channel that maps one window at a time
+     * and moves the window forward whenever a field would run past its end.
+     */
+    private static final class Reader {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer buffer;
+
+        Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        void ensure(int bytes) throws IOException {
+            if(buffer.remaining() >= bytes){
+                return;
+            }
+            long position = windowStart + buffer.position();
+            if(position + bytes > size){
+                throw new IOException("Binary task file is truncated");
+            }
+            map(position);
+            if(buffer.remaining() < bytes){
+                throw new IOException("Record field larger than the mapping window");
+            }
+        }
+
+        private void map(long position) throws IOException {
+            windowStart = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+        }
+
+        Task readTask() throws IOException {
+            ensure(FIXED_RECORD_SIZE);
+            int id = buffer.getInt();
+            byte status = buffer.get();
+            byte priority = buffer.get();
+            int dueDate = buffer.getInt();
+            long createdAt = buffer.getLong();
+            long updatedAt = buffer.getLong();
+            String title = readString();
+            String description = readString();
+            return new Task(id, title, description,
+                    status < 0 ? null : STATUSES[status],
+                    priority < 0 ? null : PRIORITIES[priority],
+                    dueDate == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(dueDate),
+                    fromEpochMillis(createdAt),
+                    fromEpochMillis(updatedAt));
+        }
+
+        private String readString() throws IOException {
+            ensure(4);
+            int length = buffer.getInt();
+            if(length < 0){
+                return null;
+            }
+            ensure(length);
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Streams tasks into a temp file next to the target through a direct buffer.
+     * The target is only replaced by {@link #commit()}; closing without committing
+     * discards the temp file.
+     */
+    static final class Writer implements AutoCloseable {
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        private long count;
+        private boolean committed;
+
+        Writer(Path target) throws IOException {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(0);
+        }
+
+        void write(Task task) throws IOException {
+            byte[] title = task.getTitle() == null ? null : task.getTitle().getBytes(StandardCharsets.UTF_8);
+            byte[] description = task.getDescription() == null ? null : task.getDescription().getBytes(StandardCharsets.UTF_8);
+            // Checked before anything is written: the reader could never map a longer field.
+            checkFieldSize(task, "title", title);
+            checkFieldSize(task, "description", description);
+
+            ensure(FIXED_RECORD_SIZE);
+            buffer.putInt(task.getId());
+            buffer.put(task.getStatus() == null ? -1 : (byte) task.getStatus().ordinal());
+            buffer.put(task.getPriority() == null ? -1 : (byte) task.getPriority().ordinal());
+            buffer.putInt(task.getDueDate() == null ? Integer.MIN_VALUE : (int) task.getDueDate().toEpochDay());
+            buffer.putLong(toEpochMillis(task.getCreatedAt()));
+            buffer.putLong(toEpochMillis(task.getUpdatedAt()));
+            writeBytes(title);
+            writeBytes(description);
+            count++;
+        }
+
+        private static void checkFieldSize(Task task, String field, byte[] bytes) throws IOException {
+            if(bytes != null && bytes.length > WINDOW_SIZE){
+                throw new IOException("Task " + task.getId() + " " + field + " takes " + bytes.length
+                        + " bytes; at most " + WINDOW_SIZE + " fit in a binary task file");
+            }
+        }
+
+        private void writeUnchecked(Task task) {
+            try{
+                write(task);
+            }catch (IOException e){
+                throw new UncheckedWriteException(e);
+            }
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            ensure(4);
+            if(bytes == null){
+                buffer.putInt(-1);
+                return;
+            }
+            buffer.putInt(bytes.length);
+            if(bytes.length > buffer.capacity()){
+                flush();
+                ByteBuffer large = ByteBuffer.wrap(bytes);
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+            }else{
+                ensure(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if(buffer.remaining() < bytes){
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Writes the record count into the header, forces the file to disk
+         * and moves it over the target.
+         */
+        void commit() throws IOException {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(8).putLong(count).flip();
+            channel.write(header, 8);
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(!committed){
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Carries a write failure out of a Consumer callback.
+    private static final class UncheckedWriteException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UncheckedWriteException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long millis) {
+        if(millis == Long.MIN_VALUE){
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,192 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Reads RFC 4180 CSV as written by {@link CsvTaskWriter}.
+ * <p>
+ * The header row names the columns, in any order and ignoring case; columns that are
+ * not task fields are skipped and missing ones are left null (a missing id means the
+ * task gets a new one when saved). Quoted fields may span lines. Rows may end in CRLF,
+ * LF or CR, and blank rows are skipped. An unquoted empty field is read as null and a
+ * quoted one ("") as an empty string.
+ * <p>
+ * The input is scanned through a fixed character buffer and every row is parsed into
+ * the same reused field buffers, so only the current row is held in memory.
+ */
+final class CsvTaskReader implements TaskRecordReader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int END = -1;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // The current row: values[i] holds field i, quoted[i] whether it was enclosed in quotes.
+    private StringBuilder[] values = new StringBuilder[0];
+    private boolean[] quoted = new boolean[0];
+    private int fieldCount;
+
+    private int line = 1;       // Line the scanner is on.
+    private int recordLine;     // Line the current row started on, for error messages.
+    private final TaskField[] columns;
+
+    CsvTaskReader(Reader in) throws IOException {
+        this.in = in;
+        if(!readRecord()){
+            columns = new TaskField[0];
+            return;
+        }
+        columns = new TaskField[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            TaskField field = TaskField.forKey(values[i].toString().strip());
+            if(field != null && Arrays.asList(columns).contains(field)){
+                throw new IOException("Duplicate CSV column " + field.key() + " at line " + recordLine);
+            }
+            columns[i] = field;
+        }
+    }
+
+    @Override
+    public Task read() throws IOException {
+        if(!readRecord()){
+            return null;
+        }
+        if(fieldCount != columns.length){
+            throw new IOException("CSV row at line " + recordLine + " has " + fieldCount
+                    + " fields, expected " + columns.length);
+        }
+        Task.Builder builder = Task.builder();
+        try{
+            for (int i = 0; i < fieldCount; i++) {
+                if(columns[i] != null && (quoted[i] || values[i].length() > 0)){
+                    columns[i].parse(builder, values[i]);
+                }
+            }
+        }catch (RuntimeException e){
+            throw new IOException("Invalid CSV row at line " + recordLine + ": " + e.getMessage(), e);
+        }
+        return TaskField.build(builder);
+    }
+
+    /**
+     * Reads the next non-blank row into the field buffers.
+     *
+     * @return false if the input ended before another row
+     * @throws IOException if reading fails or a quoted field is malformed
+     */
+    private boolean readRecord() throws IOException {
+        int c;
+        do {
+            recordLine = line;
+            c = next();
+            if(c == END){
+                return false;
+            }
+            fieldCount = 0;
+            c = readFields(c);
+        } while (fieldCount == 1 && !quoted[0] && values[0].length() == 0);
+        return true;
+    }
+
+    // Reads the fields of one row starting at c; returns after consuming the row's line break.
+    private int readFields(int c) throws IOException {
+        while (true) {
+            StringBuilder value = nextField();
+            if(c == '"'){
+                quoted[fieldCount - 1] = true;
+                c = readQuoted(value);
+                if(c != ',' && c != '\r' && c != '\n' && c != END){
+                    throw new IOException("Unexpected character after closing quote at line " + line);
+                }
+            }else{
+                while (c != ',' && c != '\r' && c != '\n' && c != END) {
+                    if(c == '"'){
+                        throw new IOException("Quote inside an unquoted CSV field at line " + line);
+                    }
+                    value.append((char) c);
+                    c = next();
+                }
+            }
+            if(c != ','){
+                if(c == '\r' && peek() == '\n'){
+                    next();
+                }
+                line++;
+                return c;
+            }
+            c = next();
+        }
+    }
+
+    // Reads a quoted field after its opening quote; returns the character after the closing quote.
+    private int readQuoted(StringBuilder value) throws IOException {
+        int start = line;
+        while (true) {
+            int c = next();
+            if(c == END){
+                throw new IOException("Unclosed quote in CSV field starting at line " + start);
+            }
+            if(c == '"'){
+                c = next();
+                if(c != '"'){
+                    return c;
+                }
+            }else if(c == '\n' || (c == '\r' && peek() != '\n')){
+                line++;
+            }
+            value.append((char) c);
+        }
+    }
+
+    private StringBuilder nextField() {
+        if(fieldCount == values.length){
+            int size = Math.max(8, fieldCount * 2);
+            values = Arrays.copyOf(values, size);
+            quoted = Arrays.copyOf(quoted, size);
+            for (int i = fieldCount; i < size; i++) {
+                values[i] = new StringBuilder();
+            }
+        }
+        StringBuilder value = values[fieldCount];
+        value.setLength(0);
+        quoted[fieldCount] = false;
+        fieldCount++;
+        return value;
+    }
+
+    private int next() throws IOException {
+        if(position == limit && !fill()){
+            return END;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if(position == limit && !fill()){
+            return END;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if(read <= 0){
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
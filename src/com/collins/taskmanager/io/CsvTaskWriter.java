@@ -0,0 +1,90 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes tasks as RFC 4180 CSV.
+ * <p>
+ * The first row is the header id,title,description,status,priority,dueDate,createdAt,updatedAt
+ * and every row ends in CRLF. A field containing a comma, a double quote or a line
+ * break is enclosed in double quotes, with each quote inside it doubled.
+ * A null value is written as an empty field and an empty string as "",
+ * so the two can be told apart when the file is read back.
+ */
+final class CsvTaskWriter implements TaskRecordWriter {
+
+    private static final String LINE_END = "\r\n";
+
+    private final Writer out;
+
+    CsvTaskWriter(Writer out) throws IOException {
+        this.out = out;
+        TaskField[] fields = TaskField.all();
+        for (int i = 0; i < fields.length; i++) {
+            if(i > 0){
+                out.write(',');
+            }
+            out.write(fields[i].key());
+        }
+        out.write(LINE_END);
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        TaskField[] fields = TaskField.all();
+        for (int i = 0; i < fields.length; i++) {
+            if(i > 0){
+                out.write(',');
+            }
+            writeField(fields[i].format(task));
+        }
+        out.write(LINE_END);
+    }
+
+    private void writeField(String value) throws IOException {
+        if(value == null){
+            return;
+        }
+        if(!needsQuotes(value)){
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        int quote;
+        while ((quote = value.indexOf('"', start)) >= 0) {
+            // Write up to and including the quote, then the quote again.
+            out.write(value, start, quote + 1 - start);
+            out.write('"');
+            start = quote + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        if(value.isEmpty()){
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == ',' || c == '"' || c == '\n' || c == '\r'){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
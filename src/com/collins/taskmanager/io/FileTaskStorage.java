@@ -4,17 +4,30 @@ import com.collins.taskmanager.model.Task;
 import com.collins.taskmanager.model.TaskPriority;
 import com.collins.taskmanager.model.TaskStatus;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public class FileTaskStorage implements TaskStorage {
 
-    private final String file = "fileStorage.txt";
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final Path file;
+
+    public FileTaskStorage() {
+        this(Path.of("fileStorage.txt"));
+    }
+
+    public FileTaskStorage(Path file) {
+        this.file = file;
+    }
 
     /**
      * Serializes all tasks to a text file.
@@ -33,7 +46,7 @@ public class FileTaskStorage implements TaskStorage {
             String line = task.getId()+";"+task.getTitle()+";"+task.getDescription()+";"+task.getStatus()+";"+task.getPriority()+";"+task.getDueDate()+";"+task.getCreatedAt()+";"+task.getUpdatedAt();
             lines.add(line);
         }
-        Files.write(Path.of(file),lines);
+        Files.write(file,lines);
 
     }
 
@@ -50,24 +63,109 @@ public class FileTaskStorage implements TaskStorage {
     @Override
     public List<Task> loadAll() throws IOException {
         List<Task> tasks = new ArrayList<>();
-        if(!Files.exists(Path.of(file))){
-            return tasks;
+        loadEach(tasks::add);
+        return tasks;
+    }
+
+    /**
+     * Loads all tasks from the backing text file using every worker of the given pool.
+     * <p>
+     * The file is split into chunks on line boundaries that are parsed in parallel.
+     * The returned list is in file order, identical to {@link #loadAll()}.
+     *
+     * @param pool fork-join pool to parse on, for example ForkJoinPool.commonPool()
+     * @return list of tasks reconstructed from the file, or an empty list if it does not exist
+     * @throws IOException if an error occurs while reading the file or a line is malformed
+     */
+    public List<Task> loadAllParallel(ForkJoinPool pool) throws IOException {
+        if(!Files.exists(file)){
+            return new ArrayList<>();
         }
-        List<String> lines = Files.readAllLines(Path.of(file));
-        for (String line:lines) {
-            String[] taskLine = line.split(";");
-            Task task = new Task();
-            task.setId(Integer.parseInt(taskLine[0]));
-            task.setTitle(taskLine[1]);
-            task.setDescription(taskLine[2]);
-            task.setStatus(TaskStatus.valueOf(taskLine[3]));
-            task.setPriority(TaskPriority.valueOf(taskLine[4]));
-            task.setDueDate(LocalDate.parse(taskLine[5]));
-            task.setCreatedAt(LocalDateTime.parse(taskLine[6]));
-            task.setUpdatedAt(LocalDateTime.parse(taskLine[7]));
-
-            tasks.add(task);
+        return new ParallelTaskLoader(pool).load(file);
+    }
+
+    /**
+     * Streams tasks from the backing text file one line at a time.
+     * <p>
+     * Only the current line is held in memory, so the file can be far larger
+     * than the heap. If the file does not exist, nothing is passed on.
+     *
+     * @param consumer receives every task read from the file, in file order
+     * @throws IOException if an error occurs while reading the file or a line is malformed
+     */
+    @Override
+    public void loadEach(Consumer<? super Task> consumer) throws IOException {
+        if(!Files.exists(file)){
+            return;
         }
-        return tasks;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if(!line.isEmpty()){
+                    consumer.accept(parseLine(line));
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses one line of the storage format into a task.
+     * <p>
+     * Fields are located by scanning for ';' rather than splitting, and dates and
+     * enums are parsed in place, so the only strings created are the title and
+     * description. The last five fields never contain ';', so they are located from
+     * the end of the line; any extra ';' is treated as part of the description.
+     *
+     * @throws IOException if the line does not have all eight fields or a field is invalid
+     */
+    static Task parseLine(CharSequence line) throws IOException {
+        int end = line.length();
+        int[] cuts = new int[7];
+        int idEnd = indexOf(line, 0, end);
+        int titleEnd = idEnd < 0 ? -1 : indexOf(line, idEnd + 1, end);
+        int from = end;
+        for (int i = 6; i >= 2 && from > titleEnd; i--) {
+            from = lastIndexOf(line, titleEnd + 1, from);
+            cuts[i] = from;
+        }
+        if(titleEnd < 0 || from <= titleEnd){
+            throw new IOException("Malformed task line: " + line);
+        }
+        cuts[0] = idEnd;
+        cuts[1] = titleEnd;
+
+        try{
+            return new Task(
+                    Integer.parseInt(line, 0, cuts[0], 10),
+                    line.subSequence(cuts[0] + 1, cuts[1]).toString(),
+                    line.subSequence(cuts[1] + 1, cuts[2]).toString(),
+                    TaskRecords.parseEnum(STATUSES, line, cuts[2] + 1, cuts[3]),
+                    TaskRecords.parseEnum(PRIORITIES, line, cuts[3] + 1, cuts[4]),
+                    TaskRecords.parseDate(line, cuts[4] + 1, cuts[5]),
+                    TaskRecords.parseDateTime(line, cuts[5] + 1, cuts[6]),
+                    TaskRecords.parseDateTime(line, cuts[6] + 1, end));
+        }catch (RuntimeException e){
+            throw new IOException("Malformed task line: " + line, e);
+        }
+    }
+
+    // Position of the first ';' in s[from, to), or -1.
+    private static int indexOf(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if(s.charAt(i) == ';'){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Position of the last ';' in s[from, to), or -1.
+    private static int lastIndexOf(CharSequence s, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if(s.charAt(i) == ';'){
+                return i;
+            }
+        }
+        return -1;
     }
 }
@@ -0,0 +1,43 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads JSON Lines as written by {@link JsonLinesTaskWriter}.
+ * <p>
+ * Every non-blank line must hold one flat {@link TaskJson} object; a missing id means
+ * the task gets a new one when saved. Only one line is held in memory at a time.
+ */
+final class JsonLinesTaskReader implements TaskRecordReader {
+
+    private final BufferedReader in;
+    private int lineNumber;
+
+    JsonLinesTaskReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Task read() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if(!line.isBlank()){
+                try{
+                    return TaskJson.parse(line);
+                }catch (RuntimeException e){
+                    throw new IOException("Invalid JSON record at line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes tasks as JSON Lines: one {@link TaskJson} object per line, terminated by LF.
+ * The encoding escapes every line break inside a value, so a title or description
+ * never splits a record.
+ */
+final class JsonLinesTaskWriter implements TaskRecordWriter {
+
+    private final Writer out;
+
+    JsonLinesTaskWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        TaskJson.write(out, task);
+        out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
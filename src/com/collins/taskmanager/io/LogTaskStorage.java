@@ -0,0 +1,539 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskChanges;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only, log-structured task storage with periodic snapshots.
+ * <p>
+ * Instead of rewriting every task on each save, only the differences since the
+ * last save are appended to the current log segment, one record per line:
+ * - C;&lt;task fields&gt; when a task was created
+ * - U;&lt;task fields&gt; when a task was updated
+ * - D;&lt;id&gt; when a task was deleted
+ * Task fields use the escaped encoding from {@link TaskRecords}.
+ * <p>
+ * Files in the storage directory:
+ * - wal-N.log: log segment N. A new segment is started on every load and
+ *   whenever the current one reaches the compaction threshold.
+ * - snapshot-N.snap: every task as of the end of segment N, with a CRC32 of
+ *   its contents in the header. Written to a temp file and renamed into place.
+ * <p>
+ * Loading reads the newest snapshot that passes its checksum and replays only
+ * the segments after it, so startup cost follows the size of the data set and
+ * not the length of the edit history. Compaction merges the previous snapshot
+ * with the closed segments on a background thread; it only touches files that
+ * are no longer written to, so saves never wait for it. The snapshot before the
+ * newest one and the segments after it are kept as a fallback.
+ */
+public class LogTaskStorage implements TaskStorage, AutoCloseable {
+
+    static final char CREATE = 'C';
+    static final char UPDATE = 'U';
+    static final char DELETE = 'D';
+
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Fixed-width header so it can be rewritten in place once the checksum is known:
+    // TASKSNAP;1;<generation>;<record count>;<crc32>, all numbers in hex.
+    private static final String SNAPSHOT_MAGIC = "TASKSNAP;1;";
+    private static final int SNAPSHOT_HEADER_LENGTH = SNAPSHOT_MAGIC.length() + 16 + 1 + 16 + 1 + 8 + 1;
+
+    private final Path directory;
+    private final int compactionThreshold;
+    private final ExecutorService compactor;
+
+    // Every task as last written to the log, used to work out what changed.
+    private final Map<Integer, Task> persisted = new HashMap<>();
+
+    private long activeGeneration = 1;      // Segment that new records are appended to.
+    private long activeRecords;             // Records appended to the active segment so far.
+
+    public LogTaskStorage(Path directory) {
+        this(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param directory           directory holding the log segments and snapshots
+     * @param compactionThreshold number of records after which the active segment is
+     *                            closed and a new snapshot is written in the background
+     */
+    public LogTaskStorage(Path directory, int compactionThreshold) {
+        if(compactionThreshold <= 0){
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Appends records for the tasks that were created, updated or deleted since the
+     * last load or save. A task counts as updated when any of its fields differs from
+     * the copy last written, so edits within one tick of a coarse clock are not missed;
+     * a previously saved id missing from the list counts as deleted.
+     *
+     * @param tasks full list of tasks that should be in storage after the call
+     * @throws IOException if an error occurs while appending to the log
+     */
+    @Override
+    public void saveAll(List<Task> tasks) throws IOException {
+        StringBuilder records = new StringBuilder();
+        int count = 0;
+        Set<Integer> seen = new HashSet<>();
+        for (Task task : tasks) {
+            seen.add(task.getId());
+            if(!persisted.containsKey(task.getId())){
+                appendRecord(records, CREATE, task);
+                count++;
+            }else if(!sameFields(persisted.get(task.getId()), task)){
+                appendRecord(records, UPDATE, task);
+                count++;
+            }
+        }
+        for (Integer id : persisted.keySet()) {
+            if(!seen.contains(id)){
+                records.append(DELETE).append(TaskRecords.SEPARATOR).append(id).append('\n');
+                count++;
+            }
+        }
+        if(count == 0){
+            return;
+        }
+        append(records, count);
+
+        persisted.keySet().retainAll(seen);
+        for (Task task : tasks) {
+            persisted.put(task.getId(), task);
+        }
+    }
+
+    /**
+     * Appends one record per change, without looking at any unchanged task.
+     * The cost of a save is proportional to the number of changes.
+     *
+     * @param changes tasks created, updated and deleted since the last persist
+     * @throws IOException if an error occurs while appending to the log
+     */
+    @Override
+    public void saveChanges(TaskChanges changes) throws IOException {
+        if(changes.isEmpty()){
+            return;
+        }
+        StringBuilder records = new StringBuilder();
+        for (Task task : changes.getCreated()) {
+            appendRecord(records, CREATE, task);
+        }
+        for (Task task : changes.getUpdated()) {
+            appendRecord(records, UPDATE, task);
+        }
+        for (Integer id : changes.getDeleted()) {
+            records.append(DELETE).append(TaskRecords.SEPARATOR).append(id).append('\n');
+        }
+        append(records, changes.size());
+
+        for (Task task : changes.getCreated()) {
+            persisted.put(task.getId(), task);
+        }
+        for (Task task : changes.getUpdated()) {
+            persisted.put(task.getId(), task);
+        }
+        persisted.keySet().removeAll(changes.getDeleted());
+    }
+
+    /**
+     * Rebuilds the current tasks from the newest valid snapshot plus the log
+     * segments written after it.
+     * <p>
+     * If the directory does not exist, an empty list is returned. Snapshots that fail
+     * their checksum are skipped in favour of the one before. An unterminated last
+     * line, as left by a crash or a failed write in the middle of an append, is cut
+     * off the segment it ends.
+     *
+     * @return tasks in the order they were first created
+     * @throws IOException if an error occurs while reading the snapshot or the log
+     */
+    @Override
+    public List<Task> loadAll() throws IOException {
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        persisted.clear();
+        if(!Files.isDirectory(directory)){
+            return new ArrayList<>();
+        }
+        deleteTempFiles();
+
+        long base = loadNewestSnapshot(tasks, Long.MAX_VALUE);
+        List<Long> segments = generations(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        long replayed = 0;
+        long lastGeneration = base;
+        for (long generation : segments) {
+            if(generation <= base){
+                continue;
+            }
+            Path segment = segmentPath(generation);
+            truncateTornTail(segment);
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                replayed += replay(reader, tasks);
+            }
+            lastGeneration = generation;
+        }
+
+        activeGeneration = lastGeneration + 1;
+        activeRecords = 0;
+        persisted.putAll(tasks);
+
+        // A long tail means compaction fell behind (or never ran); fold it into a snapshot now.
+        if(replayed >= compactionThreshold){
+            long upTo = lastGeneration;
+            compactor.submit(() -> compactQuietly(upTo));
+        }
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * Closes the active segment and writes a snapshot covering everything appended
+     * so far, without waiting for it.
+     *
+     * @return future that completes once the snapshot is in place
+     */
+    public Future<?> compact() {
+        long upTo = activeRecords > 0 ? rotate() : activeGeneration - 1;
+        return compactor.submit(() -> {
+            compactUpTo(upTo);
+            return null;
+        });
+    }
+
+    /**
+     * Stops the background compactor, letting a compaction that is already
+     * running finish so it does not leave a half-written temp file behind.
+     */
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try{
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies every record read from the given reader to the map of tasks by id.
+     *
+     * @return number of records applied
+     * @throws IOException if a record cannot be parsed
+     */
+    static long replay(BufferedReader reader, Map<Integer, Task> tasks) throws IOException {
+        long count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if(line.isEmpty()){
+                continue;
+            }
+            try{
+                applyRecord(line, tasks);
+            }catch (RuntimeException e){
+                throw new IOException("Corrupt log record: " + line, e);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Cuts off anything after the last line break. Every record is written with its
+     * terminating line break, so trailing bytes without one are a partial append
+     * that would otherwise be glued onto the next record.
+     */
+    static void truncateTornTail(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while (end > 0) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                channel.read(buffer, start);
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if(buffer.get(i) == '\n'){
+                        if(start + i + 1 < channel.size()){
+                            channel.truncate(start + i + 1);
+                        }
+                        return;
+                    }
+                }
+                end = start;
+            }
+            channel.truncate(0);
+        }
+    }
+
+    private static void applyRecord(String line, Map<Integer, Task> tasks) {
+        List<String> fields = TaskRecords.split(line);
+        String op = fields.get(0);
+        if(op.length() == 1 && (op.charAt(0) == CREATE || op.charAt(0) == UPDATE)){
+            if(fields.size() != 9){
+                throw new IllegalArgumentException("Expected 9 fields but found " + fields.size());
+            }
+            Task task = TaskRecords.readTask(fields, 1);
+            tasks.put(task.getId(), task);
+        }else if(op.length() == 1 && op.charAt(0) == DELETE){
+            tasks.remove(Integer.parseInt(fields.get(1)));
+        }else{
+            throw new IllegalArgumentException("Unknown log operation: " + op);
+        }
+    }
+
+    // Tasks are immutable, so an unchanged task is usually the very copy last written.
+    private static boolean sameFields(Task a, Task b) {
+        return a == b || (Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && a.getStatus() == b.getStatus()
+                && a.getPriority() == b.getPriority()
+                && Objects.equals(a.getDueDate(), b.getDueDate())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt())
+                && Objects.equals(a.getUpdatedAt(), b.getUpdatedAt()));
+    }
+
+    static void appendRecord(StringBuilder records, char op, Task task) {
+        records.append(op).append(TaskRecords.SEPARATOR);
+        TaskRecords.appendTask(records, task).append('\n');
+    }
+
+    private void append(CharSequence records, int count) throws IOException {
+        Files.createDirectories(directory);
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(records.toString());
+        try (FileChannel channel = FileChannel.open(segmentPath(activeGeneration),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long start = channel.size();
+            try{
+                channel.position(start);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }catch (IOException | RuntimeException e){
+                // Cut off what was written so the retry does not land behind half a record.
+                try{
+                    channel.truncate(start);
+                }catch (IOException truncateFailure){
+                    e.addSuppressed(truncateFailure);
+                    // Leave the torn segment behind; its tail is cut off when it is read back.
+                    rotate();
+                }
+                throw e;
+            }
+        }
+        activeRecords += count;
+        if(activeRecords >= compactionThreshold){
+            long upTo = rotate();
+            compactor.submit(() -> compactQuietly(upTo));
+        }
+    }
+
+    /**
+     * Starts a new active segment.
+     *
+     * @return generation of the segment that was just closed
+     */
+    private long rotate() {
+        long closed = activeGeneration;
+        activeGeneration++;
+        activeRecords = 0;
+        return closed;
+    }
+
+    private void compactQuietly(long upTo) {
+        try{
+            compactUpTo(upTo);
+        }catch (IOException e){
+            // The log is still complete, so a failed compaction only costs startup time.
+            System.err.println("Task log compaction failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes snapshot-upTo from the newest valid snapshot before it plus the closed
+     * segments in between, then deletes files that are no longer needed as a fallback.
+     */
+    private void compactUpTo(long upTo) throws IOException {
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        long base = loadNewestSnapshot(tasks, upTo);
+        if(base == upTo){
+            return;
+        }
+        for (long generation : generations(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if(generation > base && generation <= upTo){
+                truncateTornTail(segmentPath(generation));
+                try (BufferedReader reader = Files.newBufferedReader(segmentPath(generation), StandardCharsets.UTF_8)) {
+                    replay(reader, tasks);
+                }
+            }
+        }
+        writeSnapshot(upTo, tasks.values());
+
+        for (long generation : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if(generation < base){
+                Files.deleteIfExists(snapshotPath(generation));
+            }
+        }
+        for (long generation : generations(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if(generation <= base){
+                Files.deleteIfExists(segmentPath(generation));
+            }
+        }
+    }
+
+    /**
+     * Loads the newest snapshot no newer than the given generation that passes its checksum.
+     *
+     * @return generation of the loaded snapshot, or 0 if there is none
+     */
+    private long loadNewestSnapshot(Map<Integer, Task> tasks, long maxGeneration) throws IOException {
+        List<Long> snapshots = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            long generation = snapshots.get(i);
+            if(generation > maxGeneration){
+                continue;
+            }
+            try{
+                readSnapshot(snapshotPath(generation), generation, tasks);
+                return generation;
+            }catch (IOException | RuntimeException e){
+                tasks.clear();
+            }
+        }
+        return 0;
+    }
+
+    private static void readSnapshot(Path file, long generation, Map<Integer, Task> tasks) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            byte[] header = in.readNBytes(SNAPSHOT_HEADER_LENGTH);
+            String text = new String(header, StandardCharsets.US_ASCII);
+            if(header.length != SNAPSHOT_HEADER_LENGTH || !text.startsWith(SNAPSHOT_MAGIC)){
+                throw new IOException("Not a task snapshot: " + file);
+            }
+            String[] fields = text.substring(SNAPSHOT_MAGIC.length(), text.length() - 1).split(";");
+            long expectedGeneration = Long.parseUnsignedLong(fields[0], 16);
+            long expectedCount = Long.parseUnsignedLong(fields[1], 16);
+            long expectedCrc = Long.parseUnsignedLong(fields[2], 16);
+            if(expectedGeneration != generation){
+                throw new IOException("Snapshot generation mismatch: " + file);
+            }
+
+            CheckedInputStream body = new CheckedInputStream(in, new CRC32());
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            long count = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Task task = TaskRecords.readTask(TaskRecords.split(line), 0);
+                tasks.put(task.getId(), task);
+                count++;
+            }
+            if(count != expectedCount || body.getChecksum().getValue() != expectedCrc){
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+        }
+    }
+
+    private void writeSnapshot(long generation, Collection<Task> tasks) throws IOException {
+        Path target = snapshotPath(generation);
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(snapshotHeader(generation, 0, 0)));
+
+            CheckedOutputStream body = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel)), new CRC32());
+            Writer writer = new OutputStreamWriter(body, StandardCharsets.UTF_8);
+            StringBuilder line = new StringBuilder();
+            for (Task task : tasks) {
+                line.setLength(0);
+                TaskRecords.appendTask(line, task).append('\n');
+                writer.append(line);
+            }
+            writer.flush();
+
+            // Only now are the count and checksum known; fill them into the header.
+            channel.write(ByteBuffer.wrap(snapshotHeader(generation, tasks.size(), body.getChecksum().getValue())), 0);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static byte[] snapshotHeader(long generation, long count, long crc) {
+        String header = String.format("%s%016x;%016x;%08x\n", SNAPSHOT_MAGIC, generation, count, crc);
+        return header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private void deleteTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if(file.getFileName().toString().endsWith(TEMP_SUFFIX)){
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the generations of the files with the given name pattern, oldest first.
+     */
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        if(!Files.isDirectory(directory)){
+            return generations;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if(name.startsWith(prefix) && name.endsWith(suffix)){
+                    try{
+                        generations.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                    }catch (NumberFormatException ignored){
+                        // Not one of ours.
+                    }
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private Path segmentPath(long generation) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long generation) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, generation, SNAPSHOT_SUFFIX));
+    }
+}
@@ -0,0 +1,176 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses a FileTaskStorage text file on a fork-join pool.
+ * <p>
+ * The file is cut into chunks whose boundaries are moved forward to the next
+ * line break, so every chunk holds whole records. Like BufferedReader.readLine,
+ * a line ends at "\n", "\r\n" or a lone "\r"; each of '\r' and '\n' is taken as
+ * a line break on its own, which only adds an empty line inside "\r\n", and empty
+ * lines are skipped just as the sequential load skips them. Chunks are memory-mapped,
+ * decoded and parsed in parallel, and the per-chunk results are joined in file
+ * order, so the result is exactly what a sequential load would produce.
+ */
+class ParallelTaskLoader {
+
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 256L << 20;
+
+    private final ForkJoinPool pool;
+
+    ParallelTaskLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return every task in the file, in file order
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    List<Task> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBoundaries(channel);
+            @SuppressWarnings("unchecked")
+            List<Task>[] results = (List<Task>[]) new List<?>[bounds.length - 1];
+            try{
+                pool.invoke(new ParseChunks(channel, bounds, results, 0, results.length));
+            }catch (UncheckedIOException e){
+                throw e.getCause();
+            }
+
+            int total = 0;
+            for (List<Task> chunk : results) {
+                total += chunk.size();
+            }
+            List<Task> tasks = new ArrayList<>(total);
+            for (List<Task> chunk : results) {
+                tasks.addAll(chunk);
+            }
+            return tasks;
+        }
+    }
+
+    /**
+     * Picks roughly four chunks per worker thread, then moves each cut to just after
+     * the next line break so no record is split between two chunks.
+     */
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = size / (pool.getParallelism() * 4L);
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, target));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = chunkSize;
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        while (position < size) {
+            long cut = nextLineStart(channel, position, probe);
+            if(cut >= size){
+                break;
+            }
+            bounds.add(cut);
+            position = cut + chunkSize;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        long size = channel.size();
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if(read <= 0){
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = probe.get(i);
+                if(b == '\n' || b == '\r'){
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static List<Task> parseChunk(FileChannel channel, long start, long end) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if(end <= start){
+            return tasks;
+        }
+        // A line break is a single byte in UTF-8, so every chunk is valid UTF-8 on its own.
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+        int length = chars.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chars.charAt(lineEnd) != '\n' && chars.charAt(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            if(lineEnd > lineStart){
+                tasks.add(FileTaskStorage.parseLine(chars.subSequence(lineStart, lineEnd)));
+            }
+            lineStart = lineEnd + 1;
+        }
+        return tasks;
+    }
+
+    /**
+     * Splits the range of chunks in half until a single chunk is left, then parses it
+     * into its slot of the shared results array.
+     */
+    private static final class ParseChunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final List<Task>[] results;
+        private final int from;
+        private final int to;
+
+        ParseChunks(FileChannel channel, long[] bounds, List<Task>[] results, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1){
+                try{
+                    results[from] = parseChunk(channel, bounds[from], bounds[from + 1]);
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseChunks(channel, bounds, results, from, middle),
+                    new ParseChunks(channel, bounds, results, middle, to));
+        }
+    }
+}
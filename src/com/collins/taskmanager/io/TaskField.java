@@ -0,0 +1,159 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+
+/**
+ * The task fields as named columns (CSV) or keys (JSON Lines), in the order they are written.
+ * <p>
+ * Values are formatted with toString and parsed from a CharSequence in place,
+ * so readers can hand over their field buffer without creating a String first.
+ */
+enum TaskField {
+    ID("id") {
+        @Override
+        String format(Task task) {
+            return Integer.toString(task.getId());
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.id(Integer.parseInt(value, 0, value.length(), 10));
+        }
+    },
+    TITLE("title") {
+        @Override
+        String format(Task task) {
+            return task.getTitle();
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.title(value.toString());
+        }
+    },
+    DESCRIPTION("description") {
+        @Override
+        String format(Task task) {
+            return task.getDescription();
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.description(value.toString());
+        }
+    },
+    STATUS("status") {
+        @Override
+        String format(Task task) {
+            return task.getStatus() == null ? null : task.getStatus().name();
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.status(TaskRecords.parseEnum(STATUSES, value, 0, value.length()));
+        }
+    },
+    PRIORITY("priority") {
+        @Override
+        String format(Task task) {
+            return task.getPriority() == null ? null : task.getPriority().name();
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.priority(TaskRecords.parseEnum(PRIORITIES, value, 0, value.length()));
+        }
+    },
+    DUE_DATE("dueDate") {
+        @Override
+        String format(Task task) {
+            return task.getDueDate() == null ? null : task.getDueDate().toString();
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.dueDate(TaskRecords.parseDate(value, 0, value.length()));
+        }
+    },
+    CREATED_AT("createdAt") {
+        @Override
+        String format(Task task) {
+            return task.getCreatedAt() == null ? null : task.getCreatedAt().toString();
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.createdAt(TaskRecords.parseDateTime(value, 0, value.length()));
+        }
+    },
+    UPDATED_AT("updatedAt") {
+        @Override
+        String format(Task task) {
+            return task.getUpdatedAt() == null ? null : task.getUpdatedAt().toString();
+        }
+
+        @Override
+        void parse(Task.Builder builder, CharSequence value) {
+            builder.updatedAt(TaskRecords.parseDateTime(value, 0, value.length()));
+        }
+    };
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    private static final TaskField[] FIELDS = values();
+
+    private final String key;
+
+    TaskField(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    /**
+     * Returns the field's value as text, or null if the task has no value for it.
+     */
+    abstract String format(Task task);
+
+    /**
+     * Parses a non-null value and sets it on the builder.
+     *
+     * @throws IllegalArgumentException if the value is not valid for the field
+     * @throws java.time.format.DateTimeException if a date or timestamp is invalid
+     */
+    abstract void parse(Task.Builder builder, CharSequence value);
+
+    /**
+     * Finds the field with the given column or key name, ignoring case.
+     *
+     * @return the field, or null if no field has that name
+     */
+    static TaskField forKey(String key) {
+        for (TaskField field : FIELDS) {
+            if(field.key.equalsIgnoreCase(key)){
+                return field;
+            }
+        }
+        return null;
+    }
+
+    static TaskField[] all() {
+        return FIELDS;
+    }
+
+    /**
+     * Builds the parsed task. A record that carried neither timestamp (for example
+     * a hand-written CSV with only some of the columns) is stamped with the current time.
+     */
+    static Task build(Task.Builder builder) {
+        Task task = builder.build();
+        if(task.getCreatedAt() == null && task.getUpdatedAt() == null){
+            task = task.toBuilder().createdNow().build();
+        }
+        return task;
+    }
+}
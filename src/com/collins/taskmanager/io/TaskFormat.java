@@ -0,0 +1,79 @@
+package com.collins.taskmanager.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Text formats tasks can be exported to and imported from.
+ * <p>
+ * Both formats carry the fields id, title, description, status, priority, dueDate,
+ * createdAt and updatedAt, escape every character a title or description may
+ * contain, and are read and written one record at a time, so files of any size
+ * stream through a small, fixed amount of memory.
+ */
+public enum TaskFormat {
+
+    /**
+     * RFC 4180 comma-separated values with a header row; see {@link CsvTaskWriter}.
+     */
+    CSV {
+        @Override
+        public TaskRecordWriter newWriter(Writer out) throws IOException {
+            return new CsvTaskWriter(out);
+        }
+
+        @Override
+        public TaskRecordReader newReader(Reader in) throws IOException {
+            return new CsvTaskReader(in);
+        }
+    },
+
+    /**
+     * One JSON object per line; see {@link JsonLinesTaskWriter}.
+     */
+    JSON_LINES {
+        @Override
+        public TaskRecordWriter newWriter(Writer out) {
+            return new JsonLinesTaskWriter(out);
+        }
+
+        @Override
+        public TaskRecordReader newReader(Reader in) {
+            return new JsonLinesTaskReader(in instanceof BufferedReader buffered ? buffered : new BufferedReader(in));
+        }
+    };
+
+    /**
+     * Starts writing records to the given stream, which should be buffered.
+     *
+     * @throws IOException if writing a header fails
+     */
+    public abstract TaskRecordWriter newWriter(Writer out) throws IOException;
+
+    /**
+     * Starts reading records from the given stream.
+     *
+     * @throws IOException if reading or validating a header fails
+     */
+    public abstract TaskRecordReader newReader(Reader in) throws IOException;
+
+    /**
+     * Picks the format from a file name: .csv for CSV, .jsonl or .ndjson for JSON Lines.
+     *
+     * @throws IllegalArgumentException if the extension is not one of those
+     */
+    public static TaskFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if(name.endsWith(".csv")){
+            return CSV;
+        }
+        if(name.endsWith(".jsonl") || name.endsWith(".ndjson")){
+            return JSON_LINES;
+        }
+        throw new IllegalArgumentException("Unknown task file format (expected .csv, .jsonl or .ndjson): " + file);
+    }
+}
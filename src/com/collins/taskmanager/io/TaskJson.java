@@ -0,0 +1,250 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON encoding of a single task, shared by the JSON Lines format and the HTTP API.
+ * <p>
+ * A task is a flat object with the keys id, title, description, status, priority,
+ * dueDate, createdAt and updatedAt. The id is a number, missing values are null, and
+ * every other value is a string. Quotes, backslashes and control characters are
+ * escaped, so the encoding never contains a raw line break.
+ * <p>
+ * The parser accepts keys in any order and case, ignores unknown keys whose value is
+ * a string, number, boolean or null, and leaves missing fields null. It does not
+ * support nested objects or arrays.
+ */
+public final class TaskJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TaskJson() {}
+
+    /**
+     * Writes the task as one JSON object, without a trailing line break.
+     *
+     * @throws IOException if writing fails
+     */
+    public static void write(Writer out, Task task) throws IOException {
+        out.write('{');
+        TaskField[] fields = TaskField.all();
+        for (int i = 0; i < fields.length; i++) {
+            TaskField field = fields[i];
+            if(i > 0){
+                out.write(',');
+            }
+            out.write('"');
+            out.write(field.key());
+            out.write("\":");
+            String value = field.format(task);
+            if(value == null){
+                out.write("null");
+            }else if(field == TaskField.ID){
+                out.write(value);
+            }else{
+                writeString(out, value);
+            }
+        }
+        out.write('}');
+    }
+
+    /**
+     * Writes the value as a quoted, escaped JSON string, or null.
+     *
+     * @throws IOException if writing fails
+     */
+    public static void writeString(Writer out, String value) throws IOException {
+        if(value == null){
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c >= 0x20 && c != '"' && c != '\\'){
+                continue;
+            }
+            // Copy the plain run before this character in one call, then its escape.
+            out.write(value, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                case '\b' -> out.write("\\b");
+                case '\f' -> out.write("\\f");
+                default -> {
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xF]);
+                }
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    /**
+     * Parses one JSON object into a task. Surrounding whitespace, including line
+     * breaks, is allowed; anything else after the object is not.
+     *
+     * @throws IllegalArgumentException if the text is not a valid task object
+     * @throws java.time.DateTimeException if a date or timestamp is invalid
+     */
+    public static Task parse(String json) {
+        return new Parser(json).parseTask();
+    }
+
+    private static final class Parser {
+        private final String text;
+        private final StringBuilder unescaped = new StringBuilder();
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Task parseTask() {
+            Task.Builder builder = Task.builder();
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if(peek() == '}'){
+                position++;
+            }else{
+                while (true) {
+                    skipWhitespace();
+                    TaskField field = TaskField.forKey(parseString().toString());
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    parseValue(field, builder);
+                    skipWhitespace();
+                    char c = next();
+                    if(c == '}'){
+                        break;
+                    }
+                    if(c != ','){
+                        throw new IllegalArgumentException("Expected ',' or '}' at column " + position);
+                    }
+                }
+            }
+            skipWhitespace();
+            if(position < text.length()){
+                throw new IllegalArgumentException("Unexpected text after the object at column " + (position + 1));
+            }
+            return TaskField.build(builder);
+        }
+
+        private void parseValue(TaskField field, Task.Builder builder) {
+            char c = peek();
+            if(c == '"'){
+                CharSequence value = parseString();
+                if(field != null){
+                    field.parse(builder, value);
+                }
+            }else if(c == '-' || (c >= '0' && c <= '9')){
+                int start = position;
+                while (position < text.length() && "+-.eE0123456789".indexOf(text.charAt(position)) >= 0) {
+                    position++;
+                }
+                if(field != null){
+                    field.parse(builder, text.subSequence(start, position));
+                }
+            }else if(text.startsWith("null", position)){
+                position += 4;
+            }else if(field == null && text.startsWith("true", position)){
+                position += 4;
+            }else if(field == null && text.startsWith("false", position)){
+                position += 5;
+            }else{
+                throw new IllegalArgumentException("Unsupported value at column " + (position + 1));
+            }
+        }
+
+        /**
+         * Parses a string at the current position. A string without escapes is returned
+         * as a view of the text; otherwise it is unescaped into a reused buffer, so the
+         * result is only valid until the next call.
+         */
+        private CharSequence parseString() {
+            expect('"');
+            int start = position;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if(c == '"'){
+                    position++;
+                    return text.subSequence(start, position - 1);
+                }
+                if(c == '\\'){
+                    break;
+                }
+                position++;
+            }
+            unescaped.setLength(0);
+            unescaped.append(text, start, position);
+            while (true) {
+                char c = next();
+                if(c == '"'){
+                    return unescaped;
+                }
+                if(c != '\\'){
+                    unescaped.append(c);
+                    continue;
+                }
+                char e = next();
+                switch (e) {
+                    case '"', '\\', '/' -> unescaped.append(e);
+                    case 'n' -> unescaped.append('\n');
+                    case 'r' -> unescaped.append('\r');
+                    case 't' -> unescaped.append('\t');
+                    case 'b' -> unescaped.append('\b');
+                    case 'f' -> unescaped.append('\f');
+                    case 'u' -> {
+                        if(position + 4 > text.length()){
+                            throw new IllegalArgumentException("Truncated \\u escape");
+                        }
+                        unescaped.append((char) Integer.parseInt(text, position, position + 4, 16));
+                        position += 4;
+                    }
+                    default -> throw new IllegalArgumentException("Invalid escape \\" + e);
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if(c != ' ' && c != '\t' && c != '\r' && c != '\n'){
+                    return;
+                }
+                position++;
+            }
+        }
+
+        private char peek() {
+            if(position == text.length()){
+                throw new IllegalArgumentException("Unexpected end of input");
+            }
+            return text.charAt(position);
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if(next() != c){
+                throw new IllegalArgumentException("Expected '" + c + "' at column " + position);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads tasks one record at a time from some import format, holding no more
+ * than the current record in memory. Closing the reader closes the stream it reads from.
+ *
+ * @see TaskFormat#newReader(java.io.Reader)
+ */
+public interface TaskRecordReader extends Closeable {
+
+    /**
+     * Reads the next task.
+     *
+     * @return the next task, or null once the input is exhausted
+     * @throws IOException if reading fails or the record is malformed; the message
+     *                     names the line the record starts on
+     */
+    Task read() throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes tasks one record at a time in some export format.
+ * Closing the writer closes the stream it writes to.
+ *
+ * @see TaskFormat#newWriter(java.io.Writer)
+ */
+public interface TaskRecordWriter extends Closeable, Flushable {
+
+    /**
+     * Appends one record for the given task.
+     *
+     * @throws IOException if writing to the underlying stream fails
+     */
+    void write(Task task) throws IOException;
+}
@@ -0,0 +1,203 @@
+package com.collins.taskmanager.io;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escaped, ';'-separated text encoding for task records used by the log-based storages.
+ * <p>
+ * Unlike the plain FileTaskStorage format, field values may contain ';', line breaks
+ * and backslashes: these are written as "\;", "\n", "\r" and "\\".
+ * A null value is written as "\N" so it can be told apart from an empty string.
+ */
+final class TaskRecords {
+
+    static final char SEPARATOR = ';';
+    private static final String NULL = "\\N";
+
+    private TaskRecords() {}
+
+    /**
+     * Appends the fields of the given task to the builder in the order
+     * id;title;description;status;priority;dueDate;createdAt;updatedAt
+     */
+    static StringBuilder appendTask(StringBuilder sb, Task task) {
+        sb.append(task.getId()).append(SEPARATOR);
+        appendField(sb, task.getTitle()).append(SEPARATOR);
+        appendField(sb, task.getDescription()).append(SEPARATOR);
+        appendField(sb, task.getStatus()).append(SEPARATOR);
+        appendField(sb, task.getPriority()).append(SEPARATOR);
+        appendField(sb, task.getDueDate()).append(SEPARATOR);
+        appendField(sb, task.getCreatedAt()).append(SEPARATOR);
+        appendField(sb, task.getUpdatedAt());
+        return sb;
+    }
+
+    /**
+     * Rebuilds a task from the eight fields starting at the given offset,
+     * as produced by {@link #appendTask(StringBuilder, Task)}.
+     */
+    static Task readTask(List<String> fields, int offset) {
+        String status = fields.get(offset + 3);
+        String priority = fields.get(offset + 4);
+        String dueDate = fields.get(offset + 5);
+        String createdAt = fields.get(offset + 6);
+        String updatedAt = fields.get(offset + 7);
+        return new Task(
+                Integer.parseInt(fields.get(offset)),
+                fields.get(offset + 1),
+                fields.get(offset + 2),
+                status == null ? null : TaskStatus.valueOf(status),
+                priority == null ? null : TaskPriority.valueOf(priority),
+                dueDate == null ? null : parseDate(dueDate, 0, dueDate.length()),
+                createdAt == null ? null : parseDateTime(createdAt, 0, createdAt.length()),
+                updatedAt == null ? null : parseDateTime(updatedAt, 0, updatedAt.length()));
+    }
+
+    /**
+     * Parses an ISO yyyy-MM-dd date from s[from, to) without going through a
+     * DateTimeFormatter. Anything other than that exact shape is handed to
+     * LocalDate.parse so unusual but valid values still load.
+     */
+    static LocalDate parseDate(CharSequence s, int from, int to) {
+        if(to - from == 10 && s.charAt(from + 4) == '-' && s.charAt(from + 7) == '-'){
+            int year = digits(s, from, from + 4);
+            int month = digits(s, from + 5, from + 7);
+            int day = digits(s, from + 8, from + 10);
+            if(year >= 0 && month >= 0 && day >= 0){
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(s.subSequence(from, to));
+    }
+
+    /**
+     * Parses the output of LocalDateTime.toString (yyyy-MM-ddTHH:mm with optional
+     * seconds and a fraction of 1 to 9 digits) from s[from, to), falling back to
+     * LocalDateTime.parse for any other shape.
+     */
+    static LocalDateTime parseDateTime(CharSequence s, int from, int to) {
+        int length = to - from;
+        if(length >= 16 && s.charAt(from + 10) == 'T' && s.charAt(from + 13) == ':'){
+            LocalDate date = parseDate(s, from, from + 10);
+            int hour = digits(s, from + 11, from + 13);
+            int minute = digits(s, from + 14, from + 16);
+            int second = 0;
+            int nano = 0;
+            boolean valid = hour >= 0 && minute >= 0;
+            if(valid && length > 16){
+                valid = length >= 19 && s.charAt(from + 16) == ':';
+                second = valid ? digits(s, from + 17, from + 19) : -1;
+                if(valid && length > 19){
+                    int fraction = length - 20;
+                    valid = s.charAt(from + 19) == '.' && fraction >= 1 && fraction <= 9;
+                    nano = valid ? digits(s, from + 20, to) : -1;
+                    for (int i = fraction; valid && i < 9; i++) {
+                        nano *= 10;
+                    }
+                }
+                valid = valid && second >= 0 && nano >= 0;
+            }
+            if(valid){
+                return LocalDateTime.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), hour, minute, second, nano);
+            }
+        }
+        return LocalDateTime.parse(s.subSequence(from, to));
+    }
+
+    /**
+     * Finds the constant whose name equals s[from, to) without creating a substring.
+     *
+     * @throws IllegalArgumentException if no constant has that name
+     */
+    static <E extends Enum<E>> E parseEnum(E[] values, CharSequence s, int from, int to) {
+        int length = to - from;
+        for (E value : values) {
+            String name = value.name();
+            if(name.length() == length && regionEquals(s, from, name)){
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No constant named " + s.subSequence(from, to));
+    }
+
+    private static boolean regionEquals(CharSequence s, int from, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if(s.charAt(from + i) != name.charAt(i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Value of the decimal digits in s[from, to), or -1 if any character is not a digit.
+    private static int digits(CharSequence s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if(d < 0 || d > 9){
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    static StringBuilder appendField(StringBuilder sb, Object value) {
+        if(value == null){
+            return sb.append(NULL);
+        }
+        String s = value.toString();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case ';' -> sb.append("\\;");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * Splits one encoded line into its unescaped fields.
+     *
+     * @throws IllegalArgumentException if the line ends in the middle of an escape sequence
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isNull = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if(c == SEPARATOR){
+                fields.add(isNull ? null : field.toString());
+                field.setLength(0);
+                isNull = false;
+            }else if(c == '\\'){
+                if(++i == line.length()){
+                    throw new IllegalArgumentException("Dangling escape in record");
+                }
+                char e = line.charAt(i);
+                switch (e) {
+                    case 'n' -> field.append('\n');
+                    case 'r' -> field.append('\r');
+                    case 'N' -> isNull = true;
+                    default -> field.append(e);
+                }
+            }else{
+                field.append(c);
+            }
+        }
+        fields.add(isNull ? null : field.toString());
+        return fields;
+    }
+}
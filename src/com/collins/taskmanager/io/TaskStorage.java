@@ -1,9 +1,13 @@
 package com.collins.taskmanager.io;
 
 import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskChanges;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Abstraction for saving and loading tasks to and from some
@@ -26,4 +30,41 @@ public interface TaskStorage {
      * @throws IOException if an I/O error occurs while reading
      */
     List<Task> loadAll() throws IOException;
+
+    /**
+     * Loads all tasks from storage, handing each one to the given consumer
+     * as soon as it is read instead of collecting them into a list.
+     * <p>
+     * Implementations that can read their storage incrementally override this
+     * so memory use stays bounded regardless of how many tasks are stored.
+     *
+     * @param consumer receives every task read from storage
+     * @throws IOException if an I/O error occurs while reading
+     */
+    default void loadEach(Consumer<? super Task> consumer) throws IOException {
+        loadAll().forEach(consumer);
+    }
+
+    /**
+     * Persists only the given changes on top of what is already in storage.
+     * Does nothing if there are no changes.
+     * <p>
+     * This default reads everything back, applies the changes and rewrites it all,
+     * which is correct for any storage but as expensive as saveAll. Storages that can
+     * write individual records (such as the append-only log) override it.
+     *
+     * @param changes tasks created, updated and deleted since the last persist
+     * @throws IOException if an I/O error occurs while reading or writing
+     */
+    default void saveChanges(TaskChanges changes) throws IOException {
+        if(changes.isEmpty()){
+            return;
+        }
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        loadEach(task -> tasks.put(task.getId(), task));
+        changes.getCreated().forEach(task -> tasks.put(task.getId(), task));
+        changes.getUpdated().forEach(task -> tasks.put(task.getId(), task));
+        changes.getDeleted().forEach(tasks::remove);
+        saveAll(List.copyOf(tasks.values()));
+    }
 }
@@ -2,87 +2,140 @@ package com.collins.taskmanager.model;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * Represents a single to-do item in the task manager,
  * including its title, description, status, priority and timestamps.
+ * <p>
+ * Tasks are immutable: changes are made with the with* methods, which return an
+ * updated copy, so a task can be shared between threads, indexes and snapshots
+ * without defensive copies. Changing a field stamps updatedAt from the
+ * {@link TaskClock} set with {@link #setClock(TaskClock)}.
  */
-public class Task {
-    private int id;                     // Unique identifier assigned by the repository.
-    private String title;               // Short name of the task, shown in lists.
-    private String description;         // Optional longer description with more details.
-    private TaskStatus status;          // Current workflow state (TODO, IN_PROGRESS, DONE).
-    private TaskPriority priority;      // Importance level of the task.
-    private LocalDate dueDate;          // Optional calendar date when the task should be finished.
-    private LocalDateTime createdAt;    // When the task was first created.
-    private LocalDateTime updatedAt;    // When the task was last modified.
-
-    // No-argument constructor used primarily for reconstructing tasks
-    // from storage (for example, when loading from a file).
-    public Task() {}
-
-
+public final class Task {
+    private static volatile TaskClock clock = TaskClock.system();
+
+    private final int id;                     // Unique identifier assigned by the repository.
+    private final String title;               // Short name of the task, shown in lists.
+    private final String description;         // Optional longer description with more details.
+    private final TaskStatus status;          // Current workflow state (TODO, IN_PROGRESS, DONE).
+    private final TaskPriority priority;      // Importance level of the task.
+    private final LocalDate dueDate;          // Optional calendar date when the task should be finished.
+    private final LocalDateTime createdAt;    // When the task was first created.
+    private final LocalDateTime updatedAt;    // When the task was last modified.
+
+    // Creates a new task without an id; both timestamps come from a single clock read.
     public Task(String title, String description, TaskStatus status, TaskPriority priority, LocalDate dueDate) {
+        this(0, title, description, status, priority, dueDate, null, null, clock.now());
+    }
+
+    // Full constructor for rebuilding a stored task exactly as it was saved.
+    // It never touches the clock.
+    public Task(int id, String title, String description, TaskStatus status, TaskPriority priority,
+                LocalDate dueDate, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
         this.title = title;
         this.description = description;
         this.status = status;
         this.priority = priority;
         this.dueDate = dueDate;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    private Task(int id, String title, String description, TaskStatus status, TaskPriority priority,
+                 LocalDate dueDate, LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime now) {
+        this(id, title, description, status, priority, dueDate, createdAt == null ? now : createdAt, now);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a builder holding every field of this task
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .status(status)
+                .priority(priority)
+                .dueDate(dueDate)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt);
+    }
+
+    /**
+     * @return the clock new tasks and with* changes are stamped from
+     */
+    public static TaskClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Replaces the clock new tasks and with* changes are stamped from,
+     * for example with a fixed clock in tests or a coarser one for bulk work.
+     */
+    public static void setClock(TaskClock taskClock) {
+        clock = Objects.requireNonNull(taskClock);
     }
 
     public int getId() {
         return id;
     }
 
-    public void setId(int id) {
-        this.id = id;
+    /**
+     * Returns this task with the given id. Used by repositories to assign ids,
+     * so the timestamps are left as they are.
+     */
+    public Task withId(int id) {
+        if(this.id == id){
+            return this;
+        }
+        return new Task(id, title, description, status, priority, dueDate, createdAt, updatedAt);
     }
 
     public String getTitle() {
         return title;
     }
 
-    public void setTitle(String title) {
-        this.title = title;
-        updatedAt = LocalDateTime.now();
+    public Task withTitle(String title) {
+        return new Task(id, title, description, status, priority, dueDate, createdAt, updatedAt, clock.now());
     }
 
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-        updatedAt = LocalDateTime.now();
+    public Task withDescription(String description) {
+        return new Task(id, title, description, status, priority, dueDate, createdAt, updatedAt, clock.now());
     }
 
     public TaskStatus getStatus() {
         return status;
     }
 
-    public void setStatus(TaskStatus status) {
-        this.status = status;
-        updatedAt = LocalDateTime.now();
+    public Task withStatus(TaskStatus status) {
+        return new Task(id, title, description, status, priority, dueDate, createdAt, updatedAt, clock.now());
     }
 
     public TaskPriority getPriority() {
         return priority;
     }
 
-    public void setPriority(TaskPriority priority) {
-        this.priority = priority;
-        updatedAt = LocalDateTime.now();
+    public Task withPriority(TaskPriority priority) {
+        return new Task(id, title, description, status, priority, dueDate, createdAt, updatedAt, clock.now());
     }
 
     public LocalDate getDueDate() {
         return dueDate;
     }
 
-    public void setDueDate(LocalDate dueDate) {
-        this.dueDate = dueDate;
-        updatedAt = LocalDateTime.now();
+    public Task withDueDate(LocalDate dueDate) {
+        return new Task(id, title, description, status, priority, dueDate, createdAt, updatedAt, clock.now());
     }
 
     public LocalDateTime getCreatedAt() {
@@ -93,14 +146,6 @@ public class Task {
         return updatedAt;
     }
 
-    public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
-    }
-
-    public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
-    }
-
     @Override
     public String toString() {
         return "Task: " +
@@ -114,4 +159,75 @@ public class Task {
                 ", updatedAt=" + updatedAt;
     }
 
+    /**
+     * Collects task fields and builds an immutable Task. Nothing is stamped from
+     * the clock unless {@link #createdNow()} is called, so rebuilding stored tasks
+     * keeps their timestamps exactly.
+     */
+    public static final class Builder {
+        private int id;
+        private String title;
+        private String description;
+        private TaskStatus status;
+        private TaskPriority priority;
+        private LocalDate dueDate;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        private Builder() {}
+
+        public Builder id(int id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Builder status(TaskStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder priority(TaskPriority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder dueDate(LocalDate dueDate) {
+            this.dueDate = dueDate;
+            return this;
+        }
+
+        public Builder createdAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public Builder updatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        /**
+         * Sets both timestamps to the current time of the task clock, read once.
+         */
+        public Builder createdNow() {
+            LocalDateTime now = clock.now();
+            this.createdAt = now;
+            this.updatedAt = now;
+            return this;
+        }
+
+        public Task build() {
+            return new Task(id, title, description, status, priority, dueDate, createdAt, updatedAt);
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.collins.taskmanager.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The set of task changes made since the last time tasks were persisted:
+ * tasks created, tasks updated, and ids of tasks deleted.
+ * A task appears in at most one of the three groups.
+ */
+public class TaskChanges {
+    private final List<Task> created;       // Tasks that did not exist at the last persist.
+    private final List<Task> updated;       // Previously persisted tasks that were modified.
+    private final Set<Integer> deleted;     // Ids of previously persisted tasks that were removed.
+
+    public TaskChanges(List<Task> created, List<Task> updated, Set<Integer> deleted) {
+        this.created = Collections.unmodifiableList(created);
+        this.updated = Collections.unmodifiableList(updated);
+        this.deleted = Collections.unmodifiableSet(deleted);
+    }
+
+    public List<Task> getCreated() {
+        return created;
+    }
+
+    public List<Task> getUpdated() {
+        return updated;
+    }
+
+    public Set<Integer> getDeleted() {
+        return deleted;
+    }
+
+    public boolean isEmpty() {
+        return created.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+    }
+
+    public int size() {
+        return created.size() + updated.size() + deleted.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChanges: " +
+                "created=" + created.size() +
+                ", updated=" + updated.size() +
+                ", deleted=" + deleted.size();
+    }
+}
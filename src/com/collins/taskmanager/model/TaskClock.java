@@ -0,0 +1,58 @@
+package com.collins.taskmanager.model;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Coarse source of task timestamps.
+ * <p>
+ * The time is read from the underlying {@link Clock} in whole milliseconds and
+ * truncated to the granularity; every call within the same granularity window
+ * returns the same shared LocalDateTime, so stamping many tasks in a tight loop
+ * neither allocates nor converts a new timestamp per task.
+ */
+public final class TaskClock {
+
+    private static final TaskClock SYSTEM = new TaskClock(Clock.systemDefaultZone(), Duration.ofMillis(1));
+
+    private final Clock clock;
+    private final long granularityMillis;
+    private volatile Tick last;
+
+    private TaskClock(Clock clock, Duration granularity) {
+        this.clock = clock;
+        this.granularityMillis = granularity.toMillis();
+        if(granularityMillis <= 0){
+            throw new IllegalArgumentException("Granularity must be at least one millisecond: " + granularity);
+        }
+    }
+
+    /**
+     * @return a clock on the system default time zone with millisecond granularity
+     */
+    public static TaskClock system() {
+        return SYSTEM;
+    }
+
+    /**
+     * @param clock       time source, for example Clock.fixed in tests
+     * @param granularity timestamps are truncated to multiples of this duration
+     */
+    public static TaskClock of(Clock clock, Duration granularity) {
+        return new TaskClock(clock, granularity);
+    }
+
+    public LocalDateTime now() {
+        long window = Math.floorDiv(clock.millis(), granularityMillis);
+        Tick tick = last;
+        if(tick == null || tick.window != window){
+            tick = new Tick(window, LocalDateTime.ofInstant(Instant.ofEpochMilli(window * granularityMillis), clock.getZone()));
+            last = tick;
+        }
+        return tick.time;
+    }
+
+    private record Tick(long window, LocalDateTime time) {}
+}
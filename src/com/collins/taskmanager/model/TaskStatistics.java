@@ -0,0 +1,84 @@
+package com.collins.taskmanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * Dashboard counts for the tasks in a repository on a given date.
+ * <p>
+ * Overdue and due-this-week only count tasks that are not DONE.
+ * "This week" means the seven days starting on the given date.
+ */
+public class TaskStatistics {
+    private final LocalDate date;               // Day the overdue and due-this-week counts refer to.
+    private final int total;                    // All tasks, including those without a status or priority.
+    private final int[][] counts;               // Tasks per [status][priority] ordinal; the last slot of each is null.
+    private final int overdue;                  // Open tasks due before the date.
+    private final int dueThisWeek;              // Open tasks due on the date or within the six days after it.
+
+    /**
+     * @param counts task counts indexed by [status ordinal][priority ordinal], each
+     *               with one extra trailing slot for tasks whose value is null
+     */
+    public TaskStatistics(LocalDate date, int total, int[][] counts, int overdue, int dueThisWeek) {
+        this.date = date;
+        this.total = total;
+        this.counts = new int[counts.length][];
+        for (int i = 0; i < counts.length; i++) {
+            this.counts[i] = counts[i].clone();
+        }
+        this.overdue = overdue;
+        this.dueThisWeek = dueThisWeek;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Number of tasks with the given status and priority; null selects tasks without one.
+     */
+    public int count(TaskStatus status, TaskPriority priority) {
+        return counts[slot(status, counts.length)][slot(priority, counts[0].length)];
+    }
+
+    public int count(TaskStatus status) {
+        int sum = 0;
+        for (int n : counts[slot(status, counts.length)]) {
+            sum += n;
+        }
+        return sum;
+    }
+
+    public int count(TaskPriority priority) {
+        int sum = 0;
+        for (int[] row : counts) {
+            sum += row[slot(priority, row.length)];
+        }
+        return sum;
+    }
+
+    private static int slot(Enum<?> value, int length) {
+        return value == null ? length - 1 : value.ordinal();
+    }
+
+    public int getOverdue() {
+        return overdue;
+    }
+
+    public int getDueThisWeek() {
+        return dueThisWeek;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStatistics: " +
+                "date=" + date +
+                ", total=" + total +
+                ", overdue=" + overdue +
+                ", dueThisWeek=" + dueThisWeek;
+    }
+}
@@ -0,0 +1,423 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.collins.taskmanager.repository.TaskEncoding.*;
+
+/**
+ * TaskRepository that stores tasks column by column in primitive arrays
+ * instead of keeping one Task object per task.
+ * <p>
+ * Row i of every column holds one task: ids in an int[], status and priority
+ * ordinals in byte[]s, due dates as epoch days in an int[], timestamps as epoch
+ * nanoseconds (UTC) in long[]s, and titles and descriptions in String[] tables.
+ * Ids map to rows through an {@link IdTable}. Deleting a task moves the last
+ * row into its place, so the columns stay dense.
+ * <p>
+ * Filters are plain loops over the primitive columns. Task objects are only
+ * built for the tasks a method returns. Each call returns fresh copies, so a
+ * changed task is only stored once it is saved again.
+ * <p>
+ * Timestamps must fall between the years 1677 and 2262, the range of a long
+ * in nanoseconds. This class is not thread-safe.
+ */
+public class ColumnarTaskRepository implements TaskRepository {
+
+    private int[] ids;
+    private byte[] statuses;
+    private byte[] priorities;
+    private int[] dueDays;
+    private long[] createdAt;
+    private long[] updatedAt;
+    private String[] titles;
+    private String[] descriptions;
+    private int size;
+
+    private final IdTable rows;
+    private final TaskCounters counters = new TaskCounters();
+    private int idCounter = 1;
+
+    // (dueDate, id) order, rebuilt on first use after a write; null while stale.
+    private long[] sortedKeys;
+    private int[] sortedRows;
+
+    public ColumnarTaskRepository() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize number of tasks to allocate columns for up front
+     */
+    public ColumnarTaskRepository(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        ids = new int[capacity];
+        statuses = new byte[capacity];
+        priorities = new byte[capacity];
+        dueDays = new int[capacity];
+        createdAt = new long[capacity];
+        updatedAt = new long[capacity];
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+        rows = new IdTable(capacity);
+    }
+
+    /**
+     * Saves the given task by copying its fields into the columns.
+     * If the task has no id yet (0), it is saved and returned with a newly assigned id.
+     * Saving a task whose id is already stored overwrites that row.
+     */
+    @Override
+    public Task save(Task entity) {
+        if(entity.getId()==0){
+            entity = entity.withId(idCounter);
+        }
+        Row row = new Row(entity);
+
+        //for loaded or old task, to prevent id collision from file
+        if(entity.getId() >= idCounter){
+            idCounter = entity.getId()+1;
+        }
+        store(row);
+        sortedKeys = null;
+        return entity;
+    }
+
+    /**
+     * Saves a batch of tasks. Ids for all new tasks are reserved as one range,
+     * the columns grow at most once, and the sorted keys are dropped once.
+     *
+     * @return the saved tasks, in the order given
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        TaskBatch batch = new TaskBatch(entities);
+        List<Task> saved = batch.assignIds(batch.firstNewId(idCounter));
+        // Encode the whole batch first, so a task that cannot be stored leaves every column untouched.
+        List<Row> encoded = new ArrayList<>(saved.size());
+        for (Task task : saved) {
+            encoded.add(new Row(task));
+        }
+        idCounter = batch.nextCounter(idCounter);
+        ensureCapacity(size + batch.size());
+        for (Row row : encoded) {
+            store(row);
+        }
+        sortedKeys = null;
+        return saved;
+    }
+
+    // Writes the encoded task into its row, appending a row for an id not stored yet. Nothing here can fail.
+    private void store(Row encoded) {
+        int row = rows.get(encoded.id);
+        if(row == IdTable.MISSING){
+            ensureCapacity(size + 1);
+            row = size++;
+            rows.put(encoded.id, row);
+        }else{
+            counters.remove(statuses[row], priorities[row], dueDays[row]);
+        }
+        ids[row] = encoded.id;
+        statuses[row] = encoded.status;
+        priorities[row] = encoded.priority;
+        dueDays[row] = encoded.dueDay;
+        createdAt[row] = encoded.createdAt;
+        updatedAt[row] = encoded.updatedAt;
+        titles[row] = encoded.title;
+        descriptions[row] = encoded.description;
+        counters.add(encoded.status, encoded.priority, encoded.dueDay);
+    }
+
+    /**
+     * Looks up a task by its id.
+     *
+     * @param id the identifier of the task
+     * @return a copy of the stored task, or null if not found
+     */
+    @Override
+    public Task findById(Integer id) {
+        int row = rows.get(id);
+        return row == IdTable.MISSING ? null : materialize(row);
+    }
+
+    /**
+     * Returns a list containing copies of all stored tasks, in storage order.
+     *
+     * @return list of all tasks
+     */
+    @Override
+    public List<Task> findAll() {
+        List<Task> taskList = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            taskList.add(materialize(row));
+        }
+        return taskList;
+    }
+
+    @Override
+    public int count() {
+        return size;
+    }
+
+    /**
+     * Returns all tasks ordered by due date, then id, with undated tasks last.
+     */
+    @Override
+    public List<Task> findAllSortedByDueDate() {
+        int[] order = sortedRows();
+        List<Task> taskList = new ArrayList<>(order.length);
+        for (int row : order) {
+            taskList.add(materialize(row));
+        }
+        return taskList;
+    }
+
+    /**
+     * Lazily streams tasks in (dueDate, id) order after the given cursor.
+     * The cursor is located by binary search over the sorted (dueDate, id) keys.
+     *
+     * @param after cursor to start after, or null to start from the first task
+     * @return ordered stream of tasks after the cursor
+     */
+    @Override
+    public Stream<Task> streamSortedByDueDate(TaskCursor after) {
+        int[] order = sortedRows();
+        int start = after == null ? 0 : upperBound(sortedKeys, sortKey(boundDay(after.getDueDate()), after.getId()));
+        return IntStream.range(start, order.length).mapToObj(i -> materialize(order[i]));
+    }
+
+    /**
+     * Removes the task with the given id, if it exists.
+     * The last row is moved into the freed row.
+     *
+     * @param id identifier of the task to delete
+     */
+    @Override
+    public void deleteById(Integer id) {
+        int row = rows.remove(id);
+        if(row == IdTable.MISSING){
+            return;
+        }
+        counters.remove(statuses[row], priorities[row], dueDays[row]);
+        int last = --size;
+        if(row != last){
+            ids[row] = ids[last];
+            statuses[row] = statuses[last];
+            priorities[row] = priorities[last];
+            dueDays[row] = dueDays[last];
+            createdAt[row] = createdAt[last];
+            updatedAt[row] = updatedAt[last];
+            titles[row] = titles[last];
+            descriptions[row] = descriptions[last];
+            rows.put(ids[row], row);
+        }
+        titles[last] = null;
+        descriptions[last] = null;
+        sortedKeys = null;
+    }
+
+    @Override
+    public void deleteAll() {
+        Arrays.fill(titles, 0, size, null);
+        Arrays.fill(descriptions, 0, size, null);
+        size = 0;
+        rows.clear();
+        counters.clear();
+        sortedKeys = null;
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        List<Task> taskList = new ArrayList<>();
+        if(status == null){
+            return taskList;
+        }
+        byte ordinal = (byte) status.ordinal();
+        for (int row = 0; row < size; row++) {
+            if(statuses[row] == ordinal){
+                taskList.add(materialize(row));
+            }
+        }
+        return taskList;
+    }
+
+    @Override
+    public List<Task> findByPriority(TaskPriority priority) {
+        List<Task> taskList = new ArrayList<>();
+        if(priority == null){
+            return taskList;
+        }
+        byte ordinal = (byte) priority.ordinal();
+        for (int row = 0; row < size; row++) {
+            if(priorities[row] == ordinal){
+                taskList.add(materialize(row));
+            }
+        }
+        return taskList;
+    }
+
+    @Override
+    public List<Task> findByDueAfter(LocalDate date) {
+        int day = boundDay(date);
+        List<Task> taskList = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            int due = dueDays[row];
+            if(due > day && due != NO_DATE){
+                taskList.add(materialize(row));
+            }
+        }
+        return taskList;
+    }
+
+    @Override
+    public List<Task> findByDueBefore(LocalDate date) {
+        int day = boundDay(date);
+        List<Task> taskList = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if(dueDays[row] < day){
+                taskList.add(materialize(row));
+            }
+        }
+        return taskList;
+    }
+
+    /**
+     * Reads the counts kept up to date on every save and delete.
+     */
+    @Override
+    public TaskStatistics statistics(LocalDate today) {
+        return counters.snapshot(today);
+    }
+
+    /**
+     * Answers the query in one pass over the columns. Status, priority and due-date
+     * criteria are checked on the primitive values, the text criterion on the string
+     * tables, and a Task is only built for rows that pass all of them.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        boolean[] statusMask = mask(query.getStatuses(), STATUSES.length);
+        boolean[] priorityMask = mask(query.getPriorities(), PRIORITIES.length);
+        boolean dueRange = query.hasDueRange();
+        int from = query.getDueFrom() == null ? Integer.MIN_VALUE : boundDay(query.getDueFrom());
+        int to = boundDay(query.getDueTo());
+
+        List<Task> matches = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if(!allowed(statusMask, statuses[row])){
+                continue;
+            }
+            if(!allowed(priorityMask, priorities[row])){
+                continue;
+            }
+            if(dueRange){
+                int due = dueDays[row];
+                if(due < from || due >= to || due == NO_DATE){
+                    continue;
+                }
+            }
+            if(!query.matchesText(titles[row], descriptions[row])){
+                continue;
+            }
+            matches.add(materialize(row));
+        }
+        return query.sortAndLimit(matches.stream(), false);
+    }
+
+    private Task materialize(int row) {
+        return new Task(ids[row], titles[row], descriptions[row],
+                status(statuses[row]),
+                priority(priorities[row]),
+                dueDate(dueDays[row]),
+                fromEpochNanos(createdAt[row]),
+                fromEpochNanos(updatedAt[row]));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity <= ids.length){
+            return;
+        }
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        statuses = Arrays.copyOf(statuses, grown);
+        priorities = Arrays.copyOf(priorities, grown);
+        dueDays = Arrays.copyOf(dueDays, grown);
+        createdAt = Arrays.copyOf(createdAt, grown);
+        updatedAt = Arrays.copyOf(updatedAt, grown);
+        titles = Arrays.copyOf(titles, grown);
+        descriptions = Arrays.copyOf(descriptions, grown);
+    }
+
+    /**
+     * Rows in (dueDate, id) order. Both values are packed into one long per row,
+     * so the order is a primitive sort of those keys.
+     */
+    private int[] sortedRows() {
+        if(sortedKeys == null){
+            long[] keys = new long[size];
+            for (int row = 0; row < size; row++) {
+                keys[row] = sortKey(dueDays[row], ids[row]);
+            }
+            Arrays.sort(keys);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = rows.get(idOf(keys[i]));
+            }
+            sortedRows = order;
+            sortedKeys = keys;
+        }
+        return sortedRows;
+    }
+
+    // Index of the first key greater than the given key.
+    private static int upperBound(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if(keys[middle] <= key){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A task's column values, encoded before any column is written. Encoding is where
+     * saving can fail, on an id the row table rejects or a date or time outside the
+     * encodable range, so the columns and counters never see a half-written row.
+     */
+    private static final class Row {
+        private final int id;
+        private final byte status;
+        private final byte priority;
+        private final int dueDay;
+        private final long createdAt;
+        private final long updatedAt;
+        private final String title;
+        private final String description;
+
+        private Row(Task task) {
+            if(task.getId() <= 0){
+                throw new IllegalArgumentException("Task ids must be positive: " + task.getId());
+            }
+            id = task.getId();
+            status = ordinal(task.getStatus());
+            priority = ordinal(task.getPriority());
+            dueDay = dueDay(task.getDueDate());
+            createdAt = toEpochNanos(task.getCreatedAt());
+            updatedAt = toEpochNanos(task.getUpdatedAt());
+            title = task.getTitle();
+            description = task.getDescription();
+        }
+    }
+}
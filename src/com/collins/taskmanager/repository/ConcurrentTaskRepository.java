@@ -0,0 +1,348 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe TaskRepository that can be shared between worker threads.
+ * <p>
+ * - Ids come from an atomic counter, so concurrent saves never hand out the same id.
+ * - Reads (findById, findAll and the findBy* queries) take no locks.
+ * - Writes lock only the stripe that owns the task id, so saves of different
+ *   tasks proceed in parallel and throughput grows with the number of cores.
+ */
+public class ConcurrentTaskRepository implements TaskRepository {
+
+    private final Map<Integer, Task> storage = new ConcurrentHashMap<>();
+    private final TaskIndex index = new TaskIndex(true);
+    private final AtomicInteger idCounter = new AtomicInteger(1);
+    private final ReentrantLock[] stripes;
+
+    public ConcurrentTaskRepository() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param concurrencyLevel expected number of concurrently writing threads;
+     *                         rounded up to a power of two to size the lock stripes
+     */
+    public ConcurrentTaskRepository(int concurrencyLevel) {
+        int size = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Saves the given task.
+     * If the task has no id yet (0), a new id is allocated atomically
+     * and the saved copy carrying it is returned.
+     * Tasks that already carry an id (for example loaded from a file) move
+     * the id counter past that id so later allocations cannot collide with it.
+     */
+    @Override
+    public Task save(Task entity) {
+        if(entity.getId()==0){
+            entity = entity.withId(idCounter.getAndIncrement());
+        }else{
+            idCounter.accumulateAndGet(entity.getId()+1, Math::max);
+        }
+
+        int id = entity.getId();
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try{
+            storage.put(id, entity);
+            index.add(entity);
+        }finally {
+            lock.unlock();
+        }
+        return entity;
+    }
+
+    /**
+     * Saves a batch of tasks under a single acquisition of every stripe.
+     * Ids for all new tasks are reserved with one atomic update of the counter.
+     *
+     * @return the saved tasks, in the order given
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        TaskBatch batch = new TaskBatch(entities);
+        int counter = idCounter.getAndUpdate(batch::nextCounter);
+        List<Task> saved = batch.assignIds(batch.firstNewId(counter));
+
+        lockAll();
+        try{
+            for (Task task : saved) {
+                storage.put(task.getId(), task);
+                index.add(task);
+            }
+        }finally {
+            unlockAll();
+        }
+        return saved;
+    }
+
+    /**
+     * Reads, changes and saves the task under the lock of its stripe, so a concurrent
+     * save or delete of the same id happens either before or after, never in between.
+     *
+     * @return the saved task, or null if no task has the id
+     */
+    @Override
+    public Task update(Integer id, UnaryOperator<Task> change) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try{
+            Task current = storage.get(id);
+            if(current == null){
+                return null;
+            }
+            Task updated = change.apply(current);
+            if(updated.getId() != id){
+                throw new IllegalArgumentException("An update must keep the task id " + id);
+            }
+            storage.put(id, updated);
+            index.add(updated);
+            return updated;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads, changes and saves the tasks under a single acquisition of every stripe.
+     * Every id is checked before the first change is applied, so a missing id leaves
+     * all tasks untouched; an id listed twice gets the change applied to its first result.
+     *
+     * @return the saved tasks, in the order of the ids, or null if an id has no task
+     */
+    @Override
+    public List<Task> updateAll(Collection<Integer> ids, UnaryOperator<Task> change) {
+        lockAll();
+        try{
+            for (Integer id : ids) {
+                if(!storage.containsKey(id)){
+                    return null;
+                }
+            }
+            Map<Integer, Task> changed = new LinkedHashMap<>();
+            List<Task> saved = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                Task updated = change.apply(changed.getOrDefault(id, storage.get(id)));
+                if(updated.getId() != id){
+                    throw new IllegalArgumentException("An update must keep the task id " + id);
+                }
+                changed.put(id, updated);
+                saved.add(updated);
+            }
+            for (Task task : changed.values()) {
+                storage.put(task.getId(), task);
+                index.add(task);
+            }
+            return saved;
+        }finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Looks up a task by its id without locking.
+     *
+     * @param id the identifier of the task
+     * @return the task if it exists, or null if not found
+     */
+    @Override
+    public Task findById(Integer id) {
+        return storage.get(id);
+    }
+
+    /**
+     * Returns a list of all tasks. The list reflects the repository at some
+     * point during the call; writes running at the same time may or may not be included.
+     *
+     * @return list of all tasks
+     */
+    @Override
+    public List<Task> findAll() {
+        return new ArrayList<>(storage.values());
+    }
+
+    /**
+     * Returns the number of tasks currently stored.
+     */
+    @Override
+    public int count() {
+        return storage.size();
+    }
+
+    /**
+     * Returns all tasks ordered by due date, then id, with undated tasks last.
+     * The due-date index is already kept in that order, so no sorting is done.
+     *
+     * @return sorted list of all tasks
+     */
+    @Override
+    public List<Task> findAllSortedByDueDate() {
+        return index.sortedByDueDate();
+    }
+
+    /**
+     * Lazily streams tasks in (dueDate, id) order after the given cursor,
+     * positioned through the due-date index rather than by skipping tasks.
+     *
+     * @param after cursor to start after, or null to start from the first task
+     * @return ordered stream of tasks after the cursor
+     */
+    @Override
+    public Stream<Task> streamSortedByDueDate(TaskCursor after) {
+        return index.streamAfter(after);
+    }
+
+    /**
+     * Lazily streams tasks with the given status in (dueDate, id) order after the
+     * cursor, read from the status index without visiting any other task.
+     */
+    @Override
+    public Stream<Task> streamByStatus(TaskStatus status, TaskCursor after) {
+        return index.streamWithStatus(status, after);
+    }
+
+    /**
+     * Lazily streams tasks with the given priority in (dueDate, id) order after the
+     * cursor, read from the priority index without visiting any other task.
+     */
+    @Override
+    public Stream<Task> streamByPriority(TaskPriority priority, TaskCursor after) {
+        return index.streamWithPriority(priority, after);
+    }
+
+    /**
+     * Removes the task with the given id, if it exists.
+     *
+     * @param id identifier of the task to delete
+     */
+    @Override
+    public void deleteById(Integer id) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try{
+            if(storage.remove(id) != null){
+                index.remove(id);
+            }
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all tasks. Every stripe is locked for the duration,
+     * so no save can interleave with the clear.
+     */
+    @Override
+    public void deleteAll() {
+        lockAll();
+        try{
+            storage.clear();
+            index.clear();
+        }finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Removes every task whose id is in the given collection, under a single
+     * acquisition of every stripe.
+     */
+    @Override
+    public void deleteAllById(Collection<Integer> ids) {
+        lockAll();
+        try{
+            for (Integer id : ids) {
+                if(storage.remove(id) != null){
+                    index.remove(id);
+                }
+            }
+        }finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return index.withStatus(status);
+    }
+
+    @Override
+    public List<Task> findByPriority(TaskPriority priority) {
+        return index.withPriority(priority);
+    }
+
+    @Override
+    public List<Task> findByDueAfter(LocalDate date) {
+        return index.dueAfter(date);
+    }
+
+    @Override
+    public List<Task> findByDueBefore(LocalDate date) {
+        return index.dueBefore(date);
+    }
+
+    /**
+     * Answers the query from the most selective secondary index.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return index.query(query);
+    }
+
+    /**
+     * Reads the most urgent open tasks off the front of the maintained urgency order.
+     */
+    @Override
+    public List<Task> findMostUrgent(int limit) {
+        return index.mostUrgent(limit);
+    }
+
+    /**
+     * Reads the counts the index keeps up to date on every save and delete.
+     */
+    @Override
+    public TaskStatistics statistics(LocalDate today) {
+        return index.statistics(today);
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(int id) {
+        // Spread the bits so sequential ids don't all land in neighbouring stripes.
+        int h = id * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+}
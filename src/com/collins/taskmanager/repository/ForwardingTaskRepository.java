@@ -0,0 +1,150 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
+import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.search.TextQuery;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Base class for TaskRepository decorators: every call is passed to the wrapped
+ * repository unchanged. Subclasses override just the methods they add behaviour
+ * to, usually save, deleteById and deleteAll. The batch methods saveAll and
+ * deleteAllById are forwarded as batches too, and update and updateAll are forwarded
+ * so the wrapped repository can apply them atomically, so a subclass that hooks a
+ * single save or delete must hook the update and batch variants as well.
+ */
+public abstract class ForwardingTaskRepository implements TaskRepository {
+
+    protected final TaskRepository delegate;
+
+    protected ForwardingTaskRepository(TaskRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Task save(Task entity) {
+        return delegate.save(entity);
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        return delegate.saveAll(entities);
+    }
+
+    @Override
+    public Task update(Integer id, UnaryOperator<Task> change) {
+        return delegate.update(id, change);
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<Integer> ids, UnaryOperator<Task> change) {
+        return delegate.updateAll(ids, change);
+    }
+
+    @Override
+    public Task findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ids) {
+        delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public List<Task> findByPriority(TaskPriority priority) {
+        return delegate.findByPriority(priority);
+    }
+
+    @Override
+    public List<Task> findByDueAfter(LocalDate date) {
+        return delegate.findByDueAfter(date);
+    }
+
+    @Override
+    public List<Task> findByDueBefore(LocalDate date) {
+        return delegate.findByDueBefore(date);
+    }
+
+    @Override
+    public List<Task> findAllSortedByDueDate() {
+        return delegate.findAllSortedByDueDate();
+    }
+
+    @Override
+    public Stream<Task> streamSortedByDueDate(TaskCursor after) {
+        return delegate.streamSortedByDueDate(after);
+    }
+
+    @Override
+    public Stream<Task> streamByStatus(TaskStatus status, TaskCursor after) {
+        return delegate.streamByStatus(status, after);
+    }
+
+    @Override
+    public Stream<Task> streamByPriority(TaskPriority priority, TaskCursor after) {
+        return delegate.streamByPriority(priority, after);
+    }
+
+    @Override
+    public Stream<Task> streamByDueAfter(LocalDate date, TaskCursor after) {
+        return delegate.streamByDueAfter(date, after);
+    }
+
+    @Override
+    public Stream<Task> streamByDueBefore(LocalDate date, TaskCursor after) {
+        return delegate.streamByDueBefore(date, after);
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public List<Task> findMostUrgent(int limit) {
+        return delegate.findMostUrgent(limit);
+    }
+
+    @Override
+    public TaskStatistics statistics(LocalDate today) {
+        return delegate.statistics(today);
+    }
+
+    @Override
+    public List<Task> search(TextQuery query) {
+        return delegate.search(query);
+    }
+}
@@ -0,0 +1,100 @@
+package com.collins.taskmanager.repository;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from a task id to an int slot, stored in two primitive arrays, so no
+ * Integer keys or entry objects are allocated. Probing and removal are those of
+ * {@link LinearProbingIdTable}.
+ */
+final class IdTable extends LinearProbingIdTable {
+
+    static final int MISSING = -1;
+
+    private int[] keys;
+    private int[] values;
+
+    IdTable() {
+        this(16);
+    }
+
+    IdTable(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * @return the value stored for the id, or {@link #MISSING} if there is none
+     */
+    int get(int id) {
+        int slot = find(id);
+        return slot == NOT_FOUND ? MISSING : values[slot];
+    }
+
+    /**
+     * Stores the value for the id, replacing any previous value.
+     *
+     * @throws IllegalArgumentException if the id is not positive
+     */
+    void put(int id, int value) {
+        // Insert first: it may grow the table and replace the arrays.
+        int slot = insert(id);
+        values[slot] = value;
+    }
+
+    /**
+     * Removes the id.
+     *
+     * @return the value it had, or {@link #MISSING} if it was not present
+     */
+    int remove(int id) {
+        int slot = find(id);
+        if(slot == NOT_FOUND){
+            return MISSING;
+        }
+        int removed = values[slot];
+        removeAt(slot);
+        return removed;
+    }
+
+    @Override
+    int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    int idAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    void setIdAt(int slot, int id) {
+        keys[slot] = id;
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != EMPTY){
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    void clearSlots() {
+        Arrays.fill(keys, EMPTY);
+    }
+}
@@ -2,25 +2,29 @@ package com.collins.taskmanager.repository;
 
 import com.collins.taskmanager.model.Task;
 import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
 import com.collins.taskmanager.model.TaskStatus;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 public class InMemoryTaskRepository implements TaskRepository {
 
     private final Map<Integer, Task> storage = new HashMap<>();
+    private final TaskIndex index = new TaskIndex();       // Status, priority and due-date lookups.
     private int idCounter = 1;
 
     /**
      * Saves the given task in memory.
-     * If the task has no id yet (0), a new id is assigned.
-     * Existing tasks with an id are updated in place.
+     * If the task has no id yet (0), it is saved and returned with a newly assigned id.
+     * An existing task with the same id is replaced,
+     * and the secondary indexes are refreshed for that task.
      */
     @Override
     public Task save(Task entity) {
         if(entity.getId()==0){
-            entity.setId(idCounter);
+            entity = entity.withId(idCounter);
             idCounter++;
         }
 
@@ -29,10 +33,29 @@ public class InMemoryTaskRepository implements TaskRepository {
             idCounter = entity.getId()+1;
         }
         storage.put(entity.getId(),entity);
+        index.add(entity);
 
         return entity;
     }
 
+    /**
+     * Saves a batch of tasks. Ids for all new tasks are reserved as one range
+     * above the counter and above every id in the batch.
+     *
+     * @return the saved tasks, in the order given
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        TaskBatch batch = new TaskBatch(entities);
+        List<Task> saved = batch.assignIds(batch.firstNewId(idCounter));
+        idCounter = batch.nextCounter(idCounter);
+        for (Task task : saved) {
+            storage.put(task.getId(), task);
+            index.add(task);
+        }
+        return saved;
+    }
+
     /**
      * Looks up a task by its id.
      *
@@ -57,6 +80,55 @@ public class InMemoryTaskRepository implements TaskRepository {
         return new ArrayList<>(storage.values());
     }
 
+    /**
+     * Returns the number of tasks currently stored.
+     */
+    @Override
+    public int count() {
+        return storage.size();
+    }
+
+    /**
+     * Returns all tasks ordered by due date, then id, with undated tasks last.
+     * The due-date index is already kept in that order, so no sorting is done.
+     *
+     * @return sorted list of all tasks
+     */
+    @Override
+    public List<Task> findAllSortedByDueDate() {
+        return index.sortedByDueDate();
+    }
+
+    /**
+     * Lazily streams tasks in (dueDate, id) order after the given cursor,
+     * positioned through the due-date index rather than by skipping tasks.
+     *
+     * @param after cursor to start after, or null to start from the first task
+     * @return ordered stream of tasks after the cursor
+     */
+    @Override
+    public Stream<Task> streamSortedByDueDate(TaskCursor after) {
+        return index.streamAfter(after);
+    }
+
+    /**
+     * Lazily streams tasks with the given status in (dueDate, id) order after the
+     * cursor, read from the status index without visiting any other task.
+     */
+    @Override
+    public Stream<Task> streamByStatus(TaskStatus status, TaskCursor after) {
+        return index.streamWithStatus(status, after);
+    }
+
+    /**
+     * Lazily streams tasks with the given priority in (dueDate, id) order after the
+     * cursor, read from the priority index without visiting any other task.
+     */
+    @Override
+    public Stream<Task> streamByPriority(TaskPriority priority, TaskCursor after) {
+        return index.streamWithPriority(priority, after);
+    }
+
     /**
      * Removes the task with the given id from storage, if it exists.
      *
@@ -64,7 +136,9 @@ public class InMemoryTaskRepository implements TaskRepository {
      */
     @Override
     public void deleteById(Integer id) {
-        storage.remove(id);
+        if(storage.remove(id) != null){
+            index.remove(id);
+        }
     }
 
     /**
@@ -74,73 +148,78 @@ public class InMemoryTaskRepository implements TaskRepository {
     @Override
     public void deleteAll() {
         storage.clear();
+        index.clear();
     }
 
     /**
      * Finds all tasks that currently have the given status.
+     * Served from the status index rather than a scan of all tasks.
      *
      * @param status the status to filter by
      * @return list of tasks matching that status
      */
     @Override
     public List<Task> findByStatus(TaskStatus status) {
-        List<Task> taskList = new ArrayList<>();
-        storage.values().forEach(task -> {
-            if(task.getStatus().equals(status)){
-                taskList.add(task);
-            }
-        });
-        return taskList;
+        return index.withStatus(status);
     }
 
     /**
      * Finds all tasks that have the given priority level.
+     * Served from the priority index rather than a scan of all tasks.
      *
      * @param priority the priority to filter by
      * @return list of tasks with the specified priority
      */
     @Override
     public List<Task> findByPriority(TaskPriority priority) {
-        List<Task> taskList = new ArrayList<>();
-        storage.values().forEach(task -> {
-            if(task.getPriority().equals(priority)){
-                taskList.add(task);
-            }
-        });
-        return taskList;
+        return index.withPriority(priority);
     }
 
     /**
      * Finds all tasks with a due date strictly after the given date.
+     * Only the due-date buckets after the given date are visited.
      *
      * @param date the lower bound date (exclusive)
      * @return list of tasks due after the given date
      */
     @Override
     public List<Task> findByDueAfter(LocalDate date) {
-        List<Task> taskList = new ArrayList<>();
-        storage.values().forEach(task -> {
-            if(task.getDueDate().isAfter(date)){
-                taskList.add(task);
-            }
-        });
-        return taskList;
+        return index.dueAfter(date);
     }
 
     /**
      * Finds all tasks with a due date strictly before the given date.
+     * Only the due-date buckets before the given date are visited.
      *
      * @param date the upper bound date (exclusive)
      * @return list of tasks due before the given date
      */
     @Override
     public List<Task> findByDueBefore(LocalDate date) {
-        List<Task> taskList = new ArrayList<>();
-        storage.values().forEach(task -> {
-            if(task.getDueDate().isBefore(date)){
-                taskList.add(task);
-            }
-        });
-        return taskList;
+        return index.dueBefore(date);
+    }
+
+    /**
+     * Answers the query from the most selective secondary index.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return index.query(query);
+    }
+
+    /**
+     * Reads the most urgent open tasks off the front of the maintained urgency order.
+     */
+    @Override
+    public List<Task> findMostUrgent(int limit) {
+        return index.mostUrgent(limit);
+    }
+
+    /**
+     * Reads the counts the index keeps up to date on every save and delete.
+     */
+    @Override
+    public TaskStatistics statistics(LocalDate today) {
+        return index.statistics(today);
     }
 }
@@ -0,0 +1,136 @@
+package com.collins.taskmanager.repository;
+
+/**
+ * Open-addressing hash table from task ids to slots with linear probing, shared by
+ * {@link IdTable} and {@link OffHeapIdTable}.
+ * <p>
+ * This class holds the probing, growth and removal logic; a subclass decides where
+ * the ids and their values are stored. Task ids are always positive, so 0 marks an
+ * empty slot. Removal shifts the following entries of the probe run back instead
+ * of leaving tombstones, which keeps lookups short however many tasks are deleted.
+ * The table doubles its capacity before it gets more than half full.
+ */
+abstract class LinearProbingIdTable {
+
+    static final int EMPTY = 0;
+    static final int NOT_FOUND = -1;
+
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return number of slots, a power of two
+     */
+    abstract int capacity();
+
+    /**
+     * @return the id stored in the slot, or {@link #EMPTY}
+     */
+    abstract int idAt(int slot);
+
+    abstract void setIdAt(int slot, int id);
+
+    /**
+     * Copies the value of one slot to another; the id is moved separately.
+     */
+    abstract void moveValue(int from, int to);
+
+    /**
+     * Replaces the storage with an empty one of the given capacity and puts every
+     * entry back at the slot {@link #slotFor(int)} gives for it.
+     */
+    abstract void rehash(int capacity);
+
+    abstract void clearSlots();
+
+    /**
+     * @return the slot holding the id, or {@link #NOT_FOUND}
+     */
+    final int find(int id) {
+        int mask = capacity() - 1;
+        for (int i = home(id, mask); ; i = (i + 1) & mask) {
+            int key = idAt(i);
+            if(key == EMPTY){
+                return NOT_FOUND;
+            }
+            if(key == id){
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot holding the id, first adding the id to an empty slot if it
+     * is not stored yet; the caller then writes the value.
+     *
+     * @throws IllegalArgumentException if the id is not positive
+     */
+    final int insert(int id) {
+        if(id <= 0){
+            throw new IllegalArgumentException("Task ids must be positive: " + id);
+        }
+        if((size + 1) * 2L > capacity()){
+            rehash(capacity() * 2);
+        }
+        int i = slotFor(id);
+        if(idAt(i) == EMPTY){
+            setIdAt(i, id);
+            size++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the slot holding the id, or the empty slot that ends its probe run
+     */
+    final int slotFor(int id) {
+        int mask = capacity() - 1;
+        int i = home(id, mask);
+        int key;
+        while ((key = idAt(i)) != EMPTY && key != id) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Empties a slot that holds an id, moving later entries of its probe run into the gap.
+     */
+    final void removeAt(int slot) {
+        int mask = capacity() - 1;
+        size--;
+
+        // Move later entries of the run into the gap if their home slot allows it.
+        int gap = slot;
+        int key;
+        for (int j = (gap + 1) & mask; (key = idAt(j)) != EMPTY; j = (j + 1) & mask) {
+            int home = home(key, mask);
+            if(((j - home) & mask) >= ((j - gap) & mask)){
+                setIdAt(gap, key);
+                moveValue(j, gap);
+                gap = j;
+            }
+        }
+        setIdAt(gap, EMPTY);
+    }
+
+    final void clear() {
+        clearSlots();
+        size = 0;
+    }
+
+    /**
+     * @return the capacity that holds the expected number of ids without growing
+     */
+    static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+    }
+
+    private static int home(int id, int mask) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
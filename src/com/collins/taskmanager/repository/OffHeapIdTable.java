@@ -0,0 +1,112 @@
+package com.collins.taskmanager.repository;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hash map from a task id to a long offset, kept in a direct ByteBuffer so its
+ * size does not count against the Java heap. Probing and removal are those of
+ * {@link LinearProbingIdTable}.
+ * <p>
+ * Each 16-byte slot holds the int id at offset 0 and the long value at offset 8.
+ */
+final class OffHeapIdTable extends LinearProbingIdTable {
+
+    static final long MISSING = -1;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int VALUE_OFFSET = 8;
+    private static final int MAX_CAPACITY = 1 << 26;        // Largest power of two whose slots fit one ByteBuffer.
+
+    private ByteBuffer slots;
+    private int capacity;
+
+    OffHeapIdTable(int expectedSize) {
+        capacity = capacityFor(expectedSize);
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+    }
+
+    /**
+     * @return the value stored for the id, or {@link #MISSING} if there is none
+     */
+    long get(int id) {
+        int slot = find(id);
+        return slot == NOT_FOUND ? MISSING : valueAt(slot);
+    }
+
+    /**
+     * Stores the value for the id, replacing any previous value.
+     *
+     * @throws IllegalArgumentException if the id is not positive
+     * @throws IllegalStateException    if the table would have to grow beyond one ByteBuffer
+     */
+    void put(int id, long value) {
+        // Insert first: it may grow the table and replace the buffer.
+        int slot = insert(id);
+        slots.putLong(slot * SLOT_SIZE + VALUE_OFFSET, value);
+    }
+
+    /**
+     * Removes the id.
+     *
+     * @return the value it had, or {@link #MISSING} if it was not present
+     */
+    long remove(int id) {
+        int slot = find(id);
+        if(slot == NOT_FOUND){
+            return MISSING;
+        }
+        long removed = valueAt(slot);
+        removeAt(slot);
+        return removed;
+    }
+
+    @Override
+    int capacity() {
+        return capacity;
+    }
+
+    @Override
+    int idAt(int slot) {
+        return slots.getInt(slot * SLOT_SIZE);
+    }
+
+    @Override
+    void setIdAt(int slot, int id) {
+        slots.putInt(slot * SLOT_SIZE, id);
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        slots.putLong(to * SLOT_SIZE + VALUE_OFFSET, valueAt(from));
+    }
+
+    @Override
+    void rehash(int newCapacity) {
+        if(newCapacity > MAX_CAPACITY){
+            throw new IllegalStateException("Id table cannot grow beyond " + MAX_CAPACITY / 2 + " tasks");
+        }
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        slots = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+        capacity = newCapacity;
+        for (int i = 0; i < oldCapacity; i++) {
+            int key = old.getInt(i * SLOT_SIZE);
+            if(key != EMPTY){
+                int slot = slotFor(key);
+                slots.putInt(slot * SLOT_SIZE, key);
+                slots.putLong(slot * SLOT_SIZE + VALUE_OFFSET, old.getLong(i * SLOT_SIZE + VALUE_OFFSET));
+            }
+        }
+    }
+
+    @Override
+    void clearSlots() {
+        for (int i = 0; i < capacity; i++) {
+            slots.putInt(i * SLOT_SIZE, EMPTY);
+        }
+    }
+
+    private long valueAt(int slot) {
+        return slots.getLong(slot * SLOT_SIZE + VALUE_OFFSET);
+    }
+}
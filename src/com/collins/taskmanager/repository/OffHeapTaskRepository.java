@@ -0,0 +1,527 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.collins.taskmanager.repository.TaskEncoding.*;
+
+/**
+ * TaskRepository that keeps task records outside the Java heap, in direct ByteBuffers.
+ * <p>
+ * Records live in 16 MB direct segments. Each record is a block whose size is a power
+ * of two (64 bytes or more) and holds the fixed-width fields followed by the UTF-8
+ * title and description. Deleted blocks go onto a free list for their size class, and
+ * the next save of that size reuses them. Ids map to block offsets through an
+ * {@link OffHeapIdTable}, which is also off-heap. Records due on the same day are
+ * chained through links in their blocks. The heap only holds the segment list, the
+ * head of each due day's chain and a few counters, so its footprint grows with the
+ * number of distinct due days but not with the number of tasks, and the garbage
+ * collector never has to trace the stored tasks.
+ * <p>
+ * Task objects are only built for returned results, and every call returns fresh
+ * copies, so a changed task is only stored once it is saved again. Queries scan the
+ * records. The due-date order is read by walking the days in order and sorting the
+ * ids of one day's chain at a time. Timestamps must fall between the years 1677
+ * and 2262. This class is not thread-safe.
+ */
+public class OffHeapTaskRepository implements TaskRepository {
+
+    private static final int SEGMENT_SHIFT = 24;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int MIN_BLOCK_SHIFT = 6;
+    private static final int SIZE_CLASSES = SEGMENT_SHIFT - MIN_BLOCK_SHIFT + 1;
+    private static final long NO_BLOCK = -1;
+
+    // Record layout within a block.
+    private static final int ID = 0;                    // int, 0 while the block is free
+    private static final int STATUS = 4;                // byte ordinal
+    private static final int PRIORITY = 5;              // byte ordinal
+    private static final int SIZE_CLASS = 6;            // byte
+    private static final int DUE_DAY = 8;               // int epoch day
+    private static final int TITLE_LENGTH = 12;         // int byte length, -1 for null
+    private static final int CREATED_AT = 16;           // long epoch nanos
+    private static final int UPDATED_AT = 24;           // long epoch nanos
+    private static final int DESCRIPTION_LENGTH = 32;   // int byte length, -1 for null
+    private static final int DAY_PREVIOUS = 36;         // long offset of the previous block due the same day, or NO_BLOCK
+    private static final int DAY_NEXT = 44;             // long offset of the next block due the same day, or NO_BLOCK
+    private static final int HEADER_SIZE = 52;          // title bytes, then description bytes
+    private static final int NEXT_FREE = 8;             // long offset of the next free block, in a free block
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final long[] freeLists = new long[SIZE_CLASSES];
+    private final OffHeapIdTable index;
+    private final TaskCounters counters = new TaskCounters();
+    private final NavigableMap<Integer, Long> dayHeads = new TreeMap<>();     // due day -> first block of its chain
+    private long top;                                   // Offset where the next new block is carved.
+    private int idCounter = 1;
+
+    public OffHeapTaskRepository() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize number of tasks to size the id table for up front
+     */
+    public OffHeapTaskRepository(int expectedSize) {
+        index = new OffHeapIdTable(expectedSize);
+        Arrays.fill(freeLists, NO_BLOCK);
+    }
+
+    /**
+     * Saves the given task by writing it into its off-heap block.
+     * If the task has no id yet (0), it is saved and returned with a newly assigned id.
+     * An existing record is overwritten in place when the new contents fit the
+     * same block size, and moved to a block of the right size otherwise.
+     *
+     * @throws IllegalArgumentException if the title and description together exceed the segment size
+     */
+    @Override
+    public Task save(Task entity) {
+        byte[] title = encode(entity.getTitle());
+        byte[] description = encode(entity.getDescription());
+        long recordSize = (long) HEADER_SIZE + length(title) + length(description);
+        if(recordSize > SEGMENT_SIZE){
+            throw new IllegalArgumentException("Task is too large to store off-heap: " + recordSize + " bytes");
+        }
+        int sizeClass = sizeClassOf((int) recordSize);
+
+        if(entity.getId()==0){
+            entity = entity.withId(idCounter);
+            idCounter++;
+        }
+
+        //for loaded or old task, to prevent id collision from file
+        if(entity.getId() >= idCounter){
+            idCounter = entity.getId()+1;
+        }
+
+        int id = entity.getId();
+        long block = index.get(id);
+        if(block != OffHeapIdTable.MISSING){
+            detach(block);
+        }
+        if(block != OffHeapIdTable.MISSING && segment(block).get(position(block) + SIZE_CLASS) != sizeClass){
+            free(block);
+            block = OffHeapIdTable.MISSING;
+        }
+        if(block == OffHeapIdTable.MISSING){
+            block = allocate(sizeClass);
+            index.put(id, block);
+        }
+
+        ByteBuffer buffer = segment(block);
+        int p = position(block);
+        buffer.putInt(p + ID, id);
+        buffer.put(p + STATUS, ordinal(entity.getStatus()));
+        buffer.put(p + PRIORITY, ordinal(entity.getPriority()));
+        buffer.put(p + SIZE_CLASS, (byte) sizeClass);
+        buffer.putInt(p + DUE_DAY, dueDay(entity.getDueDate()));
+        buffer.putInt(p + TITLE_LENGTH, title == null ? -1 : title.length);
+        buffer.putLong(p + CREATED_AT, toEpochNanos(entity.getCreatedAt()));
+        buffer.putLong(p + UPDATED_AT, toEpochNanos(entity.getUpdatedAt()));
+        buffer.putInt(p + DESCRIPTION_LENGTH, description == null ? -1 : description.length);
+        if(title != null){
+            buffer.put(p + HEADER_SIZE, title);
+        }
+        if(description != null){
+            buffer.put(p + HEADER_SIZE + length(title), description);
+        }
+        counters.add(buffer.get(p + STATUS), buffer.get(p + PRIORITY), buffer.getInt(p + DUE_DAY));
+        linkDay(block, buffer.getInt(p + DUE_DAY));
+        return entity;
+    }
+
+    /**
+     * Saves a batch of tasks. Ids for all new tasks are reserved as one range;
+     * each task is then written to its block as by {@link #save(Task)}.
+     *
+     * @return the saved tasks, in the order given
+     */
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        TaskBatch batch = new TaskBatch(entities);
+        List<Task> saved = batch.assignIds(batch.firstNewId(idCounter));
+        idCounter = batch.nextCounter(idCounter);
+        for (Task task : saved) {
+            save(task);
+        }
+        return saved;
+    }
+
+    /**
+     * Looks up a task by its id.
+     *
+     * @param id the identifier of the task
+     * @return a copy of the stored task, or null if not found
+     */
+    @Override
+    public Task findById(Integer id) {
+        long block = index.get(id);
+        return block == OffHeapIdTable.MISSING ? null : materialize(block);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return scan((buffer, p) -> true);
+    }
+
+    @Override
+    public int count() {
+        return index.size();
+    }
+
+    /**
+     * Returns all tasks ordered by due date, then id, with undated tasks last.
+     * The (dueDate, id) keys are sorted as primitives before any task is built.
+     */
+    @Override
+    public List<Task> findAllSortedByDueDate() {
+        long[] keys = new long[index.size()];
+        int[] count = new int[1];
+        forEachRecord((buffer, p, block) -> keys[count[0]++] = sortKey(buffer.getInt(p + DUE_DAY), buffer.getInt(p + ID)));
+        Arrays.sort(keys);
+        List<Task> taskList = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            taskList.add(materialize(index.get(idOf(key))));
+        }
+        return taskList;
+    }
+
+    /**
+     * Lazily streams tasks in (dueDate, id) order after the given cursor.
+     * The due days are walked in order from the cursor's day, each day's chain is
+     * read once and its ids sorted, so the heap holds the ids of one day at a time.
+     *
+     * @param after cursor to start after, or null to start from the first task
+     * @return ordered stream of tasks after the cursor
+     */
+    @Override
+    public Stream<Task> streamSortedByDueDate(TaskCursor after) {
+        Iterator<Task> iterator = new SortedIterator(after);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Removes the task with the given id, if it exists, and puts its block on the free list.
+     *
+     * @param id identifier of the task to delete
+     */
+    @Override
+    public void deleteById(Integer id) {
+        long block = index.remove(id);
+        if(block != OffHeapIdTable.MISSING){
+            detach(block);
+            free(block);
+        }
+    }
+
+    /**
+     * Removes all tasks. The segments are kept and reused by later saves.
+     */
+    @Override
+    public void deleteAll() {
+        index.clear();
+        counters.clear();
+        dayHeads.clear();
+        Arrays.fill(freeLists, NO_BLOCK);
+        top = 0;
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        if(status == null){
+            return new ArrayList<>();
+        }
+        byte ordinal = ordinal(status);
+        return scan((buffer, p) -> buffer.get(p + STATUS) == ordinal);
+    }
+
+    @Override
+    public List<Task> findByPriority(TaskPriority priority) {
+        if(priority == null){
+            return new ArrayList<>();
+        }
+        byte ordinal = ordinal(priority);
+        return scan((buffer, p) -> buffer.get(p + PRIORITY) == ordinal);
+    }
+
+    @Override
+    public List<Task> findByDueAfter(LocalDate date) {
+        int day = boundDay(date);
+        return scan((buffer, p) -> {
+            int due = buffer.getInt(p + DUE_DAY);
+            return due > day && due != NO_DATE;
+        });
+    }
+
+    @Override
+    public List<Task> findByDueBefore(LocalDate date) {
+        int day = boundDay(date);
+        return scan((buffer, p) -> buffer.getInt(p + DUE_DAY) < day);
+    }
+
+    /**
+     * Reads the counts kept up to date on every save and delete.
+     */
+    @Override
+    public TaskStatistics statistics(LocalDate today) {
+        return counters.snapshot(today);
+    }
+
+    /**
+     * Answers the query in one pass over the records. Status, priority and due date
+     * are compared in place, and the strings are only decoded for the text criterion
+     * and for records that match.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        boolean[] statusMask = mask(query.getStatuses(), STATUSES.length);
+        boolean[] priorityMask = mask(query.getPriorities(), PRIORITIES.length);
+        boolean dueRange = query.hasDueRange();
+        int from = query.getDueFrom() == null ? Integer.MIN_VALUE : boundDay(query.getDueFrom());
+        int to = boundDay(query.getDueTo());
+        boolean text = query.getText() != null;
+
+        List<Task> matches = scan((buffer, p) -> {
+            if(!allowed(statusMask, buffer.get(p + STATUS)) || !allowed(priorityMask, buffer.get(p + PRIORITY))){
+                return false;
+            }
+            if(dueRange){
+                int due = buffer.getInt(p + DUE_DAY);
+                if(due < from || due >= to || due == NO_DATE){
+                    return false;
+                }
+            }
+            if(text){
+                int titleLength = buffer.getInt(p + TITLE_LENGTH);
+                String title = decode(buffer, p + HEADER_SIZE, titleLength);
+                String description = decode(buffer, p + HEADER_SIZE + Math.max(0, titleLength), buffer.getInt(p + DESCRIPTION_LENGTH));
+                return query.matchesText(title, description);
+            }
+            return true;
+        });
+        return query.sortAndLimit(matches.stream(), false);
+    }
+
+    // Tests a record in place, given its segment and position.
+    private interface RecordFilter {
+        boolean test(ByteBuffer buffer, int position);
+    }
+
+    private interface RecordVisitor {
+        void visit(ByteBuffer buffer, int position, long block);
+    }
+
+    private List<Task> scan(RecordFilter filter) {
+        List<Task> taskList = new ArrayList<>();
+        forEachRecord((buffer, p, block) -> {
+            if(filter.test(buffer, p)){
+                taskList.add(materialize(block));
+            }
+        });
+        return taskList;
+    }
+
+    /**
+     * Visits every stored record by walking the segments from start to end.
+     * Blocks are laid out back to back and each one records its size class,
+     * so the walk reads memory sequentially; free blocks are skipped.
+     */
+    private void forEachRecord(RecordVisitor visitor) {
+        int minBlock = 1 << MIN_BLOCK_SHIFT;
+        for (int s = 0; ((long) s << SEGMENT_SHIFT) < top; s++) {
+            ByteBuffer buffer = segments.get(s);
+            long base = (long) s << SEGMENT_SHIFT;
+            int limit = (int) Math.min(SEGMENT_SIZE, top - base);
+            int p = 0;
+            while (limit - p >= minBlock) {
+                if(buffer.getInt(p + ID) != 0){
+                    visitor.visit(buffer, p, base + p);
+                }
+                p += 1 << (buffer.get(p + SIZE_CLASS) + MIN_BLOCK_SHIFT);
+            }
+        }
+    }
+
+    /**
+     * Walks the due days in order and, for each, sorts the ids chained under it.
+     * Every record after the cursor is read once.
+     */
+    private final class SortedIterator implements Iterator<Task> {
+        private final Iterator<Map.Entry<Integer, Long>> days;
+        private final long after;
+        private long[] keys = new long[16];
+        private int read;
+        private int count;
+
+        SortedIterator(TaskCursor after) {
+            if(after == null){
+                days = dayHeads.entrySet().iterator();
+                this.after = Long.MIN_VALUE;
+            }else{
+                int day = boundDay(after.getDueDate());
+                days = dayHeads.tailMap(day, true).entrySet().iterator();
+                this.after = sortKey(day, after.getId());
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (read == count && days.hasNext()) {
+                load(days.next());
+            }
+            return read < count;
+        }
+
+        @Override
+        public Task next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            return materialize(index.get(idOf(keys[read++])));
+        }
+
+        // Collects and sorts the keys of one day's chain that come after the cursor.
+        private void load(Map.Entry<Integer, Long> day) {
+            read = 0;
+            count = 0;
+            for (long block = day.getValue(); block != NO_BLOCK; block = segment(block).getLong(position(block) + DAY_NEXT)) {
+                long key = sortKey(day.getKey(), segment(block).getInt(position(block) + ID));
+                if(key > after){
+                    if(count == keys.length){
+                        keys = Arrays.copyOf(keys, count * 2);
+                    }
+                    keys[count++] = key;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+        }
+    }
+
+    private long allocate(int sizeClass) {
+        long block = freeLists[sizeClass];
+        if(block != NO_BLOCK){
+            freeLists[sizeClass] = segment(block).getLong(position(block) + NEXT_FREE);
+            return block;
+        }
+        int blockSize = 1 << (sizeClass + MIN_BLOCK_SHIFT);
+        long segmentEnd = (top | (SEGMENT_SIZE - 1)) + 1;
+        if(top + blockSize > segmentEnd){
+            // Blocks never span segments: hand the unused tail to the free lists and move on.
+            releaseTail(segmentEnd);
+        }
+        if((int) (top >>> SEGMENT_SHIFT) == segments.size()){
+            segments.add(ByteBuffer.allocateDirect(SEGMENT_SIZE));
+        }
+        block = top;
+        top += blockSize;
+        return block;
+    }
+
+    // Splits [top, end) into power-of-two blocks, frees them and leaves top at end.
+    private void releaseTail(long end) {
+        while (end - top >= 1L << MIN_BLOCK_SHIFT) {
+            int size = Integer.highestOneBit((int) (end - top));
+            int sizeClass = Integer.numberOfTrailingZeros(size) - MIN_BLOCK_SHIFT;
+            segment(top).put(position(top) + SIZE_CLASS, (byte) sizeClass);
+            free(top);
+            top += size;
+        }
+        top = end;
+    }
+
+    // Takes a stored record out of the statistics counters and its due day's chain.
+    private void detach(long block) {
+        ByteBuffer buffer = segment(block);
+        int p = position(block);
+        counters.remove(buffer.get(p + STATUS), buffer.get(p + PRIORITY), buffer.getInt(p + DUE_DAY));
+
+        long previous = buffer.getLong(p + DAY_PREVIOUS);
+        long next = buffer.getLong(p + DAY_NEXT);
+        if(previous != NO_BLOCK){
+            segment(previous).putLong(position(previous) + DAY_NEXT, next);
+        }else if(next != NO_BLOCK){
+            dayHeads.put(buffer.getInt(p + DUE_DAY), next);
+        }else{
+            dayHeads.remove(buffer.getInt(p + DUE_DAY));
+        }
+        if(next != NO_BLOCK){
+            segment(next).putLong(position(next) + DAY_PREVIOUS, previous);
+        }
+    }
+
+    // Puts a stored record at the head of its due day's chain.
+    private void linkDay(long block, int day) {
+        Long head = dayHeads.put(day, block);
+        ByteBuffer buffer = segment(block);
+        int p = position(block);
+        buffer.putLong(p + DAY_PREVIOUS, NO_BLOCK);
+        buffer.putLong(p + DAY_NEXT, head == null ? NO_BLOCK : head);
+        if(head != null){
+            segment(head).putLong(position(head) + DAY_PREVIOUS, block);
+        }
+    }
+
+    private void free(long block) {
+        ByteBuffer buffer = segment(block);
+        int p = position(block);
+        int sizeClass = buffer.get(p + SIZE_CLASS);
+        buffer.putInt(p + ID, 0);
+        buffer.putLong(p + NEXT_FREE, freeLists[sizeClass]);
+        freeLists[sizeClass] = block;
+    }
+
+    private ByteBuffer segment(long block) {
+        return segments.get((int) (block >>> SEGMENT_SHIFT));
+    }
+
+    private static int position(long block) {
+        return (int) (block & (SEGMENT_SIZE - 1));
+    }
+
+    private Task materialize(long block) {
+        ByteBuffer buffer = segment(block);
+        int p = position(block);
+        int titleLength = buffer.getInt(p + TITLE_LENGTH);
+        return new Task(buffer.getInt(p + ID),
+                decode(buffer, p + HEADER_SIZE, titleLength),
+                decode(buffer, p + HEADER_SIZE + Math.max(0, titleLength), buffer.getInt(p + DESCRIPTION_LENGTH)),
+                status(buffer.get(p + STATUS)),
+                priority(buffer.get(p + PRIORITY)),
+                dueDate(buffer.getInt(p + DUE_DAY)),
+                fromEpochNanos(buffer.getLong(p + CREATED_AT)),
+                fromEpochNanos(buffer.getLong(p + UPDATED_AT)));
+    }
+
+    private static int sizeClassOf(int recordSize) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(recordSize, 1 << MIN_BLOCK_SHIFT) - 1);
+        return shift - MIN_BLOCK_SHIFT;
+    }
+
+    private static byte[] encode(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static String decode(ByteBuffer buffer, int position, int length) {
+        if(length < 0){
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
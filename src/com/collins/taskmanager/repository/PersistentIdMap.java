@@ -0,0 +1,269 @@
+package com.collins.taskmanager.repository;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Immutable map from non-negative int ids to values, stored as a 32-way radix
+ * trie over the bits of the id.
+ * <p>
+ * {@link #with(int, Object)} and {@link #without(int)} return a new map that
+ * copies only the nodes on the path to the changed id (at most seven arrays of
+ * 32 references) and shares every other node with this one. Dense, mostly
+ * increasing ids like the ones repositories hand out keep the trie shallow:
+ * a million ids need four levels.
+ *
+ * @param <V> value type
+ */
+final class PersistentIdMap<V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentIdMap<?> EMPTY = new PersistentIdMap<>(null, 0, 0);
+
+    private final Object[] root;        // null while the map is empty
+    private final int shift;            // bit position the root level indexes on
+    private final int size;
+
+    private PersistentIdMap(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentIdMap<V> empty() {
+        return (PersistentIdMap<V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int id) {
+        return (V) lookup(root, shift, id);
+    }
+
+    /**
+     * @return a map with the given id mapped to the value, sharing all untouched nodes with this one
+     */
+    PersistentIdMap<V> with(int id, V value) {
+        if(id < 0){
+            throw new IllegalArgumentException("Id must not be negative: " + id);
+        }
+        if(value == null){
+            throw new IllegalArgumentException("Value must not be null");
+        }
+        Object[] newRoot = root;
+        int newShift = shift;
+        if(newRoot != null){
+            // Add levels on top until the id fits; the old root becomes slot 0.
+            while (!fits(id, newShift)) {
+                Object[] grown = new Object[WIDTH];
+                grown[0] = newRoot;
+                newRoot = grown;
+                newShift += BITS;
+            }
+        }else{
+            while (!fits(id, newShift)) {
+                newShift += BITS;
+            }
+        }
+        int newSize = get(id) == null ? size + 1 : size;
+        return new PersistentIdMap<>(put(newRoot, newShift, id, value), newShift, newSize);
+    }
+
+    /**
+     * @return a map without the given id, or this map if the id is not present
+     */
+    PersistentIdMap<V> without(int id) {
+        if(get(id) == null){
+            return this;
+        }
+        if(size == 1){
+            return empty();
+        }
+        return new PersistentIdMap<>(remove(root, shift, id), shift, size - 1);
+    }
+
+    /**
+     * @return an editor for applying many changes at once, starting from this map
+     */
+    Editor<V> edit() {
+        return new Editor<>(this);
+    }
+
+    /**
+     * Calls the action for every value in ascending id order.
+     */
+    void forEach(Consumer<? super V> action) {
+        if(root != null){
+            forEach(root, shift, action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Object[] node, int level, Consumer<? super V> action) {
+        for (Object child : node) {
+            if(child == null){
+                continue;
+            }
+            if(level == 0){
+                action.accept((V) child);
+            }else{
+                forEach((Object[]) child, level - BITS, action);
+            }
+        }
+    }
+
+    private static Object lookup(Object[] root, int shift, int id) {
+        if(id < 0 || root == null || !fits(id, shift)){
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(id >>> level) & MASK];
+            if(node == null){
+                return null;
+            }
+        }
+        return node[id & MASK];
+    }
+
+    private static Object[] put(Object[] node, int level, int id, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int slot = (id >>> level) & MASK;
+        copy[slot] = level == 0 ? value : put((Object[]) copy[slot], level - BITS, id, value);
+        return copy;
+    }
+
+    // Copies the path without the id; returns null for a node left empty so it is dropped.
+    private static Object[] remove(Object[] node, int level, int id) {
+        int slot = (id >>> level) & MASK;
+        Object child = level == 0 ? null : remove((Object[]) node[slot], level - BITS, id);
+        if(child == null && isOnlyChild(node, slot)){
+            return null;
+        }
+        Object[] copy = node.clone();
+        copy[slot] = child;
+        return copy;
+    }
+
+    private static boolean isOnlyChild(Object[] node, int slot) {
+        for (int i = 0; i < WIDTH; i++) {
+            if(i != slot && node[i] != null){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean fits(int id, int shift) {
+        return shift + BITS >= 32 || id >>> (shift + BITS) == 0;
+    }
+
+    /**
+     * Applies a batch of changes and builds one new map from them.
+     * <p>
+     * A node is copied the first time the batch touches it and changed in place
+     * after that, so a batch of neighbouring ids copies each node on their paths
+     * once rather than once per id. The starting map is never modified. An editor
+     * is not thread-safe.
+     */
+    static final class Editor<V> {
+        // Nodes copied by this editor since the last build, which it may change in place.
+        private final Set<Object[]> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        private Object[] root;
+        private int shift;
+        private int size;
+
+        private Editor(PersistentIdMap<V> map) {
+            this.root = map.root;
+            this.shift = map.shift;
+            this.size = map.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(int id) {
+            return (V) lookup(root, shift, id);
+        }
+
+        void put(int id, V value) {
+            if(id < 0){
+                throw new IllegalArgumentException("Id must not be negative: " + id);
+            }
+            if(value == null){
+                throw new IllegalArgumentException("Value must not be null");
+            }
+            if(root == null){
+                root = newNode();
+            }
+            while (!fits(id, shift)) {
+                Object[] grown = newNode();
+                grown[0] = root;
+                root = grown;
+                shift += BITS;
+            }
+            root = own(root);
+            Object[] node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                int slot = (id >>> level) & MASK;
+                Object[] child = (Object[]) node[slot];
+                child = child == null ? newNode() : own(child);
+                node[slot] = child;
+                node = child;
+            }
+            if(node[id & MASK] == null){
+                size++;
+            }
+            node[id & MASK] = value;
+        }
+
+        void remove(int id) {
+            if(lookup(root, shift, id) == null){
+                return;
+            }
+            size--;
+            root = remove(root, shift, id);
+            if(root == null){
+                shift = 0;
+            }
+        }
+
+        /**
+         * @return the map with every change so far; later changes do not affect it
+         */
+        PersistentIdMap<V> build() {
+            owned.clear();
+            return root == null ? empty() : new PersistentIdMap<>(root, shift, size);
+        }
+
+        // Removes the id below an owned copy of the node; returns null for a node left empty.
+        private Object[] remove(Object[] node, int level, int id) {
+            Object[] copy = own(node);
+            int slot = (id >>> level) & MASK;
+            copy[slot] = level == 0 ? null : remove((Object[]) copy[slot], level - BITS, id);
+            return copy[slot] == null && isOnlyChild(copy, slot) ? null : copy;
+        }
+
+        private Object[] own(Object[] node) {
+            if(owned.contains(node)){
+                return node;
+            }
+            Object[] copy = node.clone();
+            owned.add(copy);
+            return copy;
+        }
+
+        private Object[] newNode() {
+            Object[] node = new Object[WIDTH];
+            owned.add(node);
+            return node;
+        }
+    }
+}
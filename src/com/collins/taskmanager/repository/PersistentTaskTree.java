@@ -0,0 +1,245 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable set of tasks in {@link TaskCursor#TASK_ORDER}, stored as an AVL tree.
+ * <p>
+ * {@link #with(Task)} and {@link #without(Task)} return a new tree that copies
+ * only the nodes on the path to the changed task, plus the few a rebalance
+ * touches, and shares every other node with this one, so a write costs O(log n)
+ * however many tasks are stored. A task is found by its (dueDate, id) position,
+ * so the version to remove must be the one that was added.
+ */
+final class PersistentTaskTree {
+
+    private static final PersistentTaskTree EMPTY = new PersistentTaskTree(null);
+
+    private final Node root;            // null while the tree is empty
+
+    private PersistentTaskTree(Node root) {
+        this.root = root;
+    }
+
+    static PersistentTaskTree empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a balanced tree in O(n) from tasks that are already in TASK_ORDER
+     * and have distinct ids.
+     */
+    static PersistentTaskTree ofSorted(List<Task> sorted) {
+        return sorted.isEmpty() ? EMPTY : new PersistentTaskTree(build(sorted, 0, sorted.size()));
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * @return a tree with the task added, replacing a task at the same position
+     */
+    PersistentTaskTree with(Task task) {
+        return new PersistentTaskTree(insert(root, task));
+    }
+
+    /**
+     * @return a tree without the task at the given task's position, or this tree if there is none
+     */
+    PersistentTaskTree without(Task task) {
+        Node remaining = delete(root, task);
+        return remaining == root ? this : new PersistentTaskTree(remaining);
+    }
+
+    /**
+     * Calls the action for every task in (dueDate, id) order.
+     */
+    void forEach(Consumer<? super Task> action) {
+        forEach(root, action);
+    }
+
+    List<Task> toList() {
+        List<Task> taskList = new ArrayList<>(size());
+        forEach(taskList::add);
+        return taskList;
+    }
+
+    /**
+     * Iterates the tasks strictly after the cursor in (dueDate, id) order.
+     * Finding the first task costs O(log n); each further task costs O(1) on average.
+     *
+     * @param after cursor to start after, or null to start from the first task
+     */
+    Iterator<Task> iterator(TaskCursor after) {
+        return new Walk(root, after);
+    }
+
+    /**
+     * Lazily streams the tasks strictly after the cursor in (dueDate, id) order.
+     *
+     * @param after cursor to start after, or null to start from the first task
+     */
+    Stream<Task> stream(TaskCursor after) {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        Spliterator<Task> spliterator = after == null
+                ? Spliterators.spliterator(iterator(null), size(), characteristics)
+                : Spliterators.spliteratorUnknownSize(iterator(after), characteristics);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private static Node build(List<Task> sorted, int from, int to) {
+        if(from == to){
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(sorted.get(middle), build(sorted, from, middle), build(sorted, middle + 1, to));
+    }
+
+    private static Node insert(Node node, Task task) {
+        if(node == null){
+            return new Node(task, null, null);
+        }
+        int order = TaskCursor.TASK_ORDER.compare(task, node.task);
+        if(order < 0){
+            return balance(node.task, insert(node.left, task), node.right);
+        }
+        if(order > 0){
+            return balance(node.task, node.left, insert(node.right, task));
+        }
+        return new Node(task, node.left, node.right);
+    }
+
+    // Returns the same node when the task is not below it, so nothing is copied for a miss.
+    private static Node delete(Node node, Task task) {
+        if(node == null){
+            return null;
+        }
+        int order = TaskCursor.TASK_ORDER.compare(task, node.task);
+        if(order < 0){
+            Node left = delete(node.left, task);
+            return left == node.left ? node : balance(node.task, left, node.right);
+        }
+        if(order > 0){
+            Node right = delete(node.right, task);
+            return right == node.right ? node : balance(node.task, node.left, right);
+        }
+        if(node.left == null){
+            return node.right;
+        }
+        if(node.right == null){
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.task, node.left, deleteFirst(node.right));
+    }
+
+    private static Node deleteFirst(Node node) {
+        if(node.left == null){
+            return node.right;
+        }
+        return balance(node.task, deleteFirst(node.left), node.right);
+    }
+
+    // Joins two subtrees whose heights differ by at most two under a new node, rotating once or twice if needed.
+    private static Node balance(Task task, Node left, Node right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if(leftHeight > rightHeight + 1){
+            if(height(left.left) >= height(left.right)){
+                return new Node(left.task, left.left, new Node(task, left.right, right));
+            }
+            Node pivot = left.right;
+            return new Node(pivot.task, new Node(left.task, left.left, pivot.left), new Node(task, pivot.right, right));
+        }
+        if(rightHeight > leftHeight + 1){
+            if(height(right.right) >= height(right.left)){
+                return new Node(right.task, new Node(task, left, right.left), right.right);
+            }
+            Node pivot = right.left;
+            return new Node(pivot.task, new Node(task, left, pivot.left), new Node(right.task, pivot.right, right.right));
+        }
+        return new Node(task, left, right);
+    }
+
+    private static void forEach(Node node, Consumer<? super Task> action) {
+        if(node != null){
+            forEach(node.left, action);
+            action.accept(node.task);
+            forEach(node.right, action);
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final Task task;
+        private final Node left;
+        private final Node right;
+        private final int height;
+        private final int size;
+
+        private Node(Task task, Node left, Node right) {
+            this.task = task;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    // In-order walk that keeps the path of nodes still to visit on a stack.
+    private static final class Walk implements Iterator<Task> {
+        private final Deque<Node> pending = new ArrayDeque<>();
+
+        private Walk(Node root, TaskCursor after) {
+            Node node = root;
+            while (node != null) {
+                if(after == null || after.isBefore(node.task)){
+                    pending.push(node);
+                    node = node.left;
+                }else{
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Task next() {
+            if(pending.isEmpty()){
+                throw new NoSuchElementException();
+            }
+            Node node = pending.pop();
+            for (Node child = node.right; child != null; child = child.left) {
+                pending.push(child);
+            }
+            return node.task;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.collins.taskmanager.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Generic contract for basic create, read and delete operations
@@ -19,6 +22,63 @@ public interface Repository<ID, T> {
      */
     T save(T entity);
 
+    /**
+     * Saves all given entities, assigning ids to the new ones.
+     * This default saves them one at a time; implementations override it to
+     * reserve ids and maintain their indexes once for the whole batch.
+     *
+     * @param entities entities to save
+     * @return the saved entities, in the order given
+     */
+    default List<T> saveAll(Collection<T> entities) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    /**
+     * Applies the change to the entity with the given id and saves the result.
+     * This default reads and saves in two steps; repositories that can be shared
+     * between threads override it so no other write to that id can land in between,
+     * for example a delete that the save would otherwise undo.
+     *
+     * @param id     identifier of the entity to change
+     * @param change returns the new version of the entity; it must keep the same id
+     * @return the saved entity, or null if no entity has the id
+     */
+    default T update(ID id, UnaryOperator<T> change) {
+        T current = findById(id);
+        return current == null ? null : save(change.apply(current));
+    }
+
+    /**
+     * Applies the change to the entity of every id and saves the results as one batch,
+     * or changes nothing if any of the ids has no entity.
+     * Like {@link #update}, this default reads and saves in separate steps; repositories
+     * that can be shared between threads override it so no other write lands in between.
+     *
+     * @param ids    identifiers of the entities to change
+     * @param change returns the new version of an entity; it must keep the same id
+     * @return the saved entities, in the order of the ids, or null if an id has no entity
+     */
+    default List<T> updateAll(Collection<ID> ids, UnaryOperator<T> change) {
+        List<T> current = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T entity = findById(id);
+            if(entity == null){
+                return null;
+            }
+            current.add(entity);
+        }
+        List<T> changed = new ArrayList<>(current.size());
+        for (T entity : current) {
+            changed.add(change.apply(entity));
+        }
+        return saveAll(changed);
+    }
+
     /**
      * Returns the entity with the given id, or null / throws later
      * depending on how callers choose to handle missing values.
@@ -35,6 +95,13 @@ public interface Repository<ID, T> {
      */
     List<T> findAll();
 
+    /**
+     * Returns the number of stored entities without materializing them.
+     *
+     * @return number of entities in the repository
+     */
+    int count();
+
     /**
      * Deletes the entity with the given id if it exists.
      *
@@ -42,6 +109,17 @@ public interface Repository<ID, T> {
      */
     void deleteById(ID id);
 
+    /**
+     * Deletes every entity whose id is in the given collection; missing ids are ignored.
+     *
+     * @param ids identifiers of the entities to remove
+     */
+    default void deleteAllById(Collection<ID> ids) {
+        for (ID id : ids) {
+            deleteById(id);
+        }
+    }
+
     /**
      * Removes all entities from the repository.
      */
@@ -0,0 +1,109 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.search.InvertedIndex;
+import com.collins.taskmanager.search.TextQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Wraps another TaskRepository and keeps a full-text {@link InvertedIndex}
+ * over the title and description of its tasks.
+ * <p>
+ * Every save re-indexes the saved task, so a changed title or description is
+ * searchable as soon as it is saved, and deletes drop the task from the index.
+ * All other calls go straight to the wrapped repository.
+ */
+public class SearchableTaskRepository extends ForwardingTaskRepository {
+
+    private final InvertedIndex textIndex = new InvertedIndex();
+
+    /**
+     * Wraps the given repository and indexes the tasks it already holds.
+     */
+    public SearchableTaskRepository(TaskRepository delegate) {
+        super(delegate);
+        for (Task task : delegate.findAll()) {
+            textIndex.put(task.getId(), task.getTitle(), task.getDescription());
+        }
+    }
+
+    @Override
+    public Task save(Task entity) {
+        Task saved = delegate.save(entity);
+        textIndex.put(saved.getId(), saved.getTitle(), saved.getDescription());
+        return saved;
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        List<Task> saved = delegate.saveAll(entities);
+        for (Task task : saved) {
+            textIndex.put(task.getId(), task.getTitle(), task.getDescription());
+        }
+        return saved;
+    }
+
+    /**
+     * Updates the task through the wrapped repository's update and re-indexes the result.
+     */
+    @Override
+    public Task update(Integer id, UnaryOperator<Task> change) {
+        Task saved = delegate.update(id, change);
+        if(saved != null){
+            textIndex.put(saved.getId(), saved.getTitle(), saved.getDescription());
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<Integer> ids, UnaryOperator<Task> change) {
+        List<Task> saved = delegate.updateAll(ids, change);
+        if(saved != null){
+            for (Task task : saved) {
+                textIndex.put(task.getId(), task.getTitle(), task.getDescription());
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+        textIndex.remove(id);
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ids) {
+        delegate.deleteAllById(ids);
+        for (Integer id : ids) {
+            textIndex.remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        textIndex.clear();
+    }
+
+    /**
+     * Answers the query from the inverted index and looks up only the matching tasks.
+     */
+    @Override
+    public List<Task> search(TextQuery query) {
+        int[] ids = textIndex.search(query);
+        List<Task> taskList = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            // A task deleted by another thread after the index lookup is skipped.
+            Task task = delegate.findById(id);
+            if(task != null){
+                taskList.add(task);
+            }
+        }
+        return taskList;
+    }
+}
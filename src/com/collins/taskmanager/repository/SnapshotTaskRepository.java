@@ -0,0 +1,175 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe TaskRepository that keeps its contents as a series of immutable
+ * {@link TaskSnapshot} versions.
+ * <p>
+ * - {@link #snapshot()} returns the current version in O(1). Reads on it take no
+ *   locks and never see a half-applied change, however many writes run meanwhile.
+ * - Every read method of this repository answers from one snapshot, so a single
+ *   listing or filter is always consistent; take a snapshot explicitly to keep
+ *   several reads consistent with each other.
+ * - Writers are serialized and publish a new version that shares all but the
+ *   changed path of its id trie with the previous one, so a write copies a few
+ *   small arrays rather than the whole repository.
+ * - Tasks are immutable, so versions share task objects instead of copying them.
+ */
+public class SnapshotTaskRepository implements TaskRepository {
+
+    private volatile TaskSnapshot current = TaskSnapshot.EMPTY;
+    private int idCounter = 1;          // guarded by this repository's monitor
+
+    /**
+     * @return the current version of the repository
+     */
+    public TaskSnapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Saves the given task and publishes a new version.
+     * If the task has no id yet (0), it is saved and returned with a newly assigned id.
+     */
+    @Override
+    public synchronized Task save(Task entity) {
+        if(entity.getId()==0){
+            entity = entity.withId(idCounter);
+            idCounter++;
+        }
+        if(entity.getId() >= idCounter){
+            idCounter = entity.getId()+1;
+        }
+        current = current.with(entity);
+        return entity;
+    }
+
+    /**
+     * Saves a batch of tasks as one new version. Ids for all new tasks are
+     * reserved as one range, and each trie node on the changed paths is copied once.
+     *
+     * @return the saved tasks, in the order given
+     */
+    @Override
+    public synchronized List<Task> saveAll(Collection<Task> entities) {
+        TaskBatch batch = new TaskBatch(entities);
+        List<Task> saved = batch.assignIds(batch.firstNewId(idCounter));
+        idCounter = batch.nextCounter(idCounter);
+        current = current.withAll(saved);
+        return saved;
+    }
+
+    /**
+     * Reads, changes and saves the task while holding the write lock, so no other
+     * write can land between the read and the save.
+     */
+    @Override
+    public synchronized Task update(Integer id, UnaryOperator<Task> change) {
+        return TaskRepository.super.update(id, change);
+    }
+
+    /**
+     * Reads, changes and saves the tasks while holding the write lock, and publishes
+     * them as one new version.
+     */
+    @Override
+    public synchronized List<Task> updateAll(Collection<Integer> ids, UnaryOperator<Task> change) {
+        return TaskRepository.super.updateAll(ids, change);
+    }
+
+    @Override
+    public Task findById(Integer id) {
+        return current.findById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return current.findAll();
+    }
+
+    @Override
+    public int count() {
+        return current.count();
+    }
+
+    @Override
+    public synchronized void deleteById(Integer id) {
+        current = current.without(id);
+    }
+
+    /**
+     * Removes every task whose id is in the given collection as one new version.
+     */
+    @Override
+    public synchronized void deleteAllById(Collection<Integer> ids) {
+        current = current.withoutAll(ids);
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        current = current.cleared();
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return current.findByStatus(status);
+    }
+
+    @Override
+    public List<Task> findByPriority(TaskPriority priority) {
+        return current.findByPriority(priority);
+    }
+
+    @Override
+    public List<Task> findByDueAfter(LocalDate date) {
+        return current.findByDueAfter(date);
+    }
+
+    @Override
+    public List<Task> findByDueBefore(LocalDate date) {
+        return current.findByDueBefore(date);
+    }
+
+    @Override
+    public List<Task> findAllSortedByDueDate() {
+        return current.findAllSortedByDueDate();
+    }
+
+    /**
+     * Streams from the snapshot current at the time of the call, so unlike the
+     * other repositories the stream may be consumed while writes continue.
+     */
+    @Override
+    public Stream<Task> streamSortedByDueDate(TaskCursor after) {
+        return current.streamSortedByDueDate(after);
+    }
+
+    @Override
+    public Stream<Task> streamByStatus(TaskStatus status, TaskCursor after) {
+        return current.streamByStatus(status, after);
+    }
+
+    @Override
+    public Stream<Task> streamByPriority(TaskPriority priority, TaskCursor after) {
+        return current.streamByPriority(priority, after);
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return current.query(query);
+    }
+
+    @Override
+    public List<Task> findMostUrgent(int limit) {
+        return current.findMostUrgent(limit);
+    }
+}
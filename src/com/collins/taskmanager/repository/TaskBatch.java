@@ -0,0 +1,69 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A batch of tasks about to be saved together, with what a repository needs to
+ * reserve ids for it in one step: how many tasks still need an id, and the
+ * highest id the others already carry.
+ * <p>
+ * New tasks get consecutive ids above both the repository's counter and every id
+ * in the batch, so they can never collide with a task saved in the same batch.
+ */
+final class TaskBatch {
+
+    private final Collection<Task> tasks;
+    private final int newTasks;
+    private final int maxId;
+
+    TaskBatch(Collection<Task> tasks) {
+        int count = 0;
+        int max = 0;
+        for (Task task : tasks) {
+            if(task.getId()==0){
+                count++;
+            }else{
+                max = Math.max(max, task.getId());
+            }
+        }
+        this.tasks = tasks;
+        this.newTasks = count;
+        this.maxId = max;
+    }
+
+    int size() {
+        return tasks.size();
+    }
+
+    /**
+     * @param idCounter the repository's next free id before the batch
+     * @return the first id of the range reserved for the new tasks
+     */
+    int firstNewId(int idCounter) {
+        return Math.max(idCounter, maxId + 1);
+    }
+
+    /**
+     * @param idCounter the repository's next free id before the batch
+     * @return the repository's next free id after the batch
+     */
+    int nextCounter(int idCounter) {
+        return firstNewId(idCounter) + newTasks;
+    }
+
+    /**
+     * @return the tasks in batch order, new ones carrying consecutive ids from firstNewId
+     */
+    List<Task> assignIds(int firstNewId) {
+        List<Task> assigned = new ArrayList<>(tasks.size());
+        int next = firstNewId;
+        for (Task task : tasks) {
+            assigned.add(task.getId()==0 ? task.withId(next++) : task);
+        }
+        return assigned;
+    }
+}
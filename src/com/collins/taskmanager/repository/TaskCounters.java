@@ -0,0 +1,186 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.TaskStatistics;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.collins.taskmanager.repository.TaskEncoding.*;
+
+/**
+ * Running totals behind {@link TaskStatistics}, updated in O(1) per added or removed task.
+ * <p>
+ * Keeps a status x priority count matrix and a per-day histogram of the due dates
+ * of open (not DONE) tasks. The overdue count is kept relative to a cutoff day:
+ * changes to tasks due before the cutoff adjust it directly, and when statistics
+ * are asked for a later day the cutoff moves forward by adding the histogram
+ * entries it passes. That happens once per elapsed day, so reading statistics
+ * costs O(1) amortized plus the seven histogram lookups for the coming week.
+ * <p>
+ * Values are passed in the primitive encodings of {@link TaskEncoding}.
+ * <p>
+ * The totals are split over stripes, one per core, each with its own monitor. A
+ * writer updates the stripe its thread maps to, so writers on different threads
+ * rarely contend, and reads add up the stripes. A stripe's counts can go negative
+ * when a task is removed on another thread than the one that added it; only the
+ * sums are meaningful. A read visits the stripes one after the other, so writes
+ * running at the same time may be seen in some stripes and not yet in others.
+ */
+final class TaskCounters {
+
+    private static final int WEEK = 7;
+
+    private final Stripe[] stripes;
+
+    TaskCounters() {
+        int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    void add(byte status, byte priority, int dueDay) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.change(status, priority, dueDay, 1);
+        }
+    }
+
+    void remove(byte status, byte priority, int dueDay) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.change(status, priority, dueDay, -1);
+        }
+    }
+
+    void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * @return number of tasks with the given status, whatever their priority
+     */
+    int withStatus(byte status) {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int c : stripe.counts[status == NO_ENUM ? STATUSES.length : status]) {
+                    count += c;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of tasks with the given priority, whatever their status
+     */
+    int withPriority(byte priority) {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int[] row : stripe.counts) {
+                    count += row[priority == NO_ENUM ? PRIORITIES.length : priority];
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param today day to count overdue and due-this-week tasks against
+     */
+    TaskStatistics snapshot(LocalDate today) {
+        int day = boundDay(today);
+        int[][] counts = new int[STATUSES.length + 1][PRIORITIES.length + 1];
+        int total = 0;
+        int overdue = 0;
+        int dueThisWeek = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.moveCutoff(day);
+                for (int s = 0; s < counts.length; s++) {
+                    for (int p = 0; p < counts[s].length; p++) {
+                        counts[s][p] += stripe.counts[s][p];
+                    }
+                }
+                total += stripe.total;
+                overdue += stripe.overdue;
+                for (int d = day; d < day + WEEK && d < NO_DATE; d++) {
+                    dueThisWeek += stripe.openDue.getOrDefault(d, 0);
+                }
+            }
+        }
+        return new TaskStatistics(today, total, counts, overdue, dueThisWeek);
+    }
+
+    private Stripe stripe() {
+        // Spread the thread's identity hash so threads created together don't share a stripe.
+        int h = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    // One share of the totals, guarded by its own monitor.
+    private static final class Stripe {
+        // Indexed by ordinal, with one extra slot at the end for tasks without a status or priority.
+        private final int[][] counts = new int[STATUSES.length + 1][PRIORITIES.length + 1];
+        private final Map<Integer, Integer> openDue = new HashMap<>();
+        private final byte done = ordinal(TaskStatus.DONE);
+        private int total;
+        private int cutoff = Integer.MIN_VALUE;         // Overdue means due before this epoch day.
+        private int overdue;
+
+        private void change(byte status, byte priority, int dueDay, int delta) {
+            total += delta;
+            counts[status == NO_ENUM ? STATUSES.length : status][priority == NO_ENUM ? PRIORITIES.length : priority] += delta;
+            if(status != done && dueDay != NO_DATE){
+                openDue.merge(dueDay, delta, (a, b) -> a + b == 0 ? null : a + b);
+                if(dueDay < cutoff){
+                    overdue += delta;
+                }
+            }
+        }
+
+        private void clear() {
+            for (int[] row : counts) {
+                Arrays.fill(row, 0);
+            }
+            openDue.clear();
+            total = 0;
+            overdue = 0;
+        }
+
+        private void moveCutoff(int day) {
+            if(day == cutoff){
+                return;
+            }
+            long distance = Math.abs((long) day - cutoff);
+            if(distance > openDue.size()){
+                // Fewer histogram entries than days to walk: recount from the entries.
+                overdue = 0;
+                for (Map.Entry<Integer, Integer> entry : openDue.entrySet()) {
+                    if(entry.getKey() < day){
+                        overdue += entry.getValue();
+                    }
+                }
+            }else if(day > cutoff){
+                for (int d = cutoff; d < day; d++) {
+                    overdue += openDue.getOrDefault(d, 0);
+                }
+            }else{
+                for (int d = day; d < cutoff; d++) {
+                    overdue -= openDue.getOrDefault(d, 0);
+                }
+            }
+            cutoff = day;
+        }
+    }
+}
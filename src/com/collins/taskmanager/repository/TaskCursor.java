@@ -0,0 +1,89 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Position in the (dueDate, id) ordering of tasks, used for keyset pagination.
+ * <p>
+ * A page query returns the tasks strictly after the cursor, so the cursor of the
+ * last task on one page is where the next page starts. Tasks without a due date
+ * sort after every dated task, so a cursor with a null due date points into that tail.
+ */
+public final class TaskCursor implements Comparable<TaskCursor> {
+
+    /** Order used by every due-date sorted listing: due date, then id, undated tasks last. */
+    public static final Comparator<Task> TASK_ORDER = Comparator
+            .comparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(Task::getId);
+
+    private static final Comparator<TaskCursor> ORDER = Comparator
+            .comparing(TaskCursor::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(TaskCursor::getId);
+
+    private final LocalDate dueDate;
+    private final int id;
+
+    public TaskCursor(LocalDate dueDate, int id) {
+        this.dueDate = dueDate;
+        this.id = id;
+    }
+
+    /**
+     * Returns the cursor positioned on the given task, so the next page starts right after it.
+     */
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.getDueDate(), task.getId());
+    }
+
+    /**
+     * Returns the cursor positioned after every task due on or before the given date.
+     */
+    public static TaskCursor afterDate(LocalDate date) {
+        return new TaskCursor(date, Integer.MAX_VALUE);
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns true if the given task comes strictly after this cursor.
+     */
+    public boolean isBefore(Task task) {
+        return ORDER.compare(this, after(task)) < 0;
+    }
+
+    @Override
+    public int compareTo(TaskCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o){
+            return true;
+        }
+        if(!(o instanceof TaskCursor other)){
+            return false;
+        }
+        return id == other.id && Objects.equals(dueDate, other.dueDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dueDate, id);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskCursor: dueDate=" + dueDate + ", id=" + id;
+    }
+}
@@ -0,0 +1,107 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+/**
+ * Primitive encodings of task fields shared by the repositories that do not
+ * keep Task objects (ColumnarTaskRepository and OffHeapTaskRepository).
+ * <p>
+ * Enums are stored as their ordinal, due dates as epoch days and timestamps
+ * as epoch nanoseconds in UTC. Each kind has a reserved value for null.
+ */
+final class TaskEncoding {
+
+    static final TaskStatus[] STATUSES = TaskStatus.values();
+    static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    static final byte NO_ENUM = -1;
+    static final int NO_DATE = Integer.MAX_VALUE;       // Sorts after every real due date.
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private TaskEncoding() {}
+
+    static byte ordinal(Enum<?> value) {
+        return value == null ? NO_ENUM : (byte) value.ordinal();
+    }
+
+    static TaskStatus status(byte ordinal) {
+        return ordinal == NO_ENUM ? null : STATUSES[ordinal];
+    }
+
+    static TaskPriority priority(byte ordinal) {
+        return ordinal == NO_ENUM ? null : PRIORITIES[ordinal];
+    }
+
+    /**
+     * Epoch day of a stored due date.
+     *
+     * @throws ArithmeticException if the date is too far from 1970 to fit an int
+     */
+    static int dueDay(LocalDate date) {
+        return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    static LocalDate dueDate(int day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    // Epoch day of a date used as a filter bound; dates beyond the int range are clamped.
+    static int boundDay(LocalDate date) {
+        if(date == null){
+            return NO_DATE;
+        }
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(NO_DATE - 1, date.toEpochDay()));
+    }
+
+    /**
+     * @throws ArithmeticException if the time is outside the years 1677 to 2262
+     */
+    static long toEpochNanos(LocalDateTime time) {
+        if(time == null){
+            return NO_TIME;
+        }
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), time.getNano());
+    }
+
+    static LocalDateTime fromEpochNanos(long nanos) {
+        if(nanos == NO_TIME){
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Packs a due day and an id into one long whose natural order is (dueDate, id)
+     * with undated tasks last.
+     */
+    static long sortKey(int dueDay, int id) {
+        return ((long) dueDay << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    static int idOf(long sortKey) {
+        return (int) sortKey;
+    }
+
+    /**
+     * Turns a set of allowed enum values into a lookup by ordinal, or null if any value is allowed.
+     */
+    static <E extends Enum<E>> boolean[] mask(Set<E> allowed, int length) {
+        if(allowed == null){
+            return null;
+        }
+        boolean[] mask = new boolean[length];
+        for (E value : allowed) {
+            mask[value.ordinal()] = true;
+        }
+        return mask;
+    }
+
+    static boolean allowed(boolean[] mask, byte ordinal) {
+        return mask == null || (ordinal != NO_ENUM && mask[ordinal]);
+    }
+}
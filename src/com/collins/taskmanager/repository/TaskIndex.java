@@ -0,0 +1,398 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Secondary indexes over the tasks held by a repository.
+ * <p>
+ * Tasks are bucketed by status and by priority, and kept in a sorted
+ * due-date map so before/after range queries only touch the matching buckets.
+ * The status and priority buckets are keyed by {@link TaskCursor}, so a page of
+ * one status or priority is read off in (dueDate, id) order after an O(log n) seek.
+ * Each due-date bucket is ordered by id, and tasks without a due date are kept
+ * in a separate id-ordered bucket, so walking the map yields every task sorted
+ * by (dueDate, id) with undated tasks last, without any sorting.
+ * Tasks that are not DONE are also kept ordered by priority (highest first),
+ * then due date, then id, so the most urgent open tasks are read off the front.
+ * Dashboard counts are kept up to date by a {@link TaskCounters}.
+ * The index remembers the task each id was indexed as, so saving a changed
+ * copy moves the id out of the old copy's buckets.
+ * <p>
+ * A concurrent index uses thread-safe maps throughout so it can be read
+ * without locking. Callers must still serialize add/remove calls for the
+ * same task id, and clear against everything else. Writers of different ids
+ * may share a due date, so creating and pruning a due-date bucket is done
+ * under a lock striped by date.
+ */
+class TaskIndex {
+
+    // Position of an open task in urgency order.
+    private record UrgencyKey(TaskPriority priority, LocalDate dueDate, int id) {}
+
+    private static final Comparator<UrgencyKey> URGENCY = Comparator
+            .comparing(UrgencyKey::priority, Comparator.nullsLast(Comparator.<TaskPriority>reverseOrder()))
+            .thenComparing(UrgencyKey::dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(UrgencyKey::id);
+
+    private static final int DUE_DATE_LOCKS = 64;
+
+    private final boolean concurrent;
+    private final Map<Integer, Task> entries;      // Task each id was last indexed as.
+    private final Map<TaskStatus, NavigableMap<TaskCursor, Task>> byStatus = new EnumMap<>(TaskStatus.class);
+    private final Map<TaskPriority, NavigableMap<TaskCursor, Task>> byPriority = new EnumMap<>(TaskPriority.class);
+    private final NavigableMap<LocalDate, NavigableMap<Integer, Task>> byDueDate;
+    private final NavigableMap<Integer, Task> undated;
+    private final NavigableMap<UrgencyKey, Task> open;
+    private final TaskCounters counters = new TaskCounters();
+    private final Object[] dueDateLocks;
+
+    TaskIndex() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent true to back the index with concurrent maps so it can be
+     *                   read while other threads are writing
+     */
+    TaskIndex(boolean concurrent) {
+        this.concurrent = concurrent;
+        this.entries = newBucket();
+        this.byDueDate = newSortedBucket();
+        this.undated = newSortedBucket();
+        this.open = concurrent ? new ConcurrentSkipListMap<>(URGENCY) : new TreeMap<>(URGENCY);
+        this.dueDateLocks = new Object[concurrent ? DUE_DATE_LOCKS : 0];
+        for (int i = 0; i < dueDateLocks.length; i++) {
+            dueDateLocks[i] = new Object();
+        }
+
+        // Enum buckets are created up front so the EnumMaps are never
+        // structurally modified after construction.
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, newSortedBucket());
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, newSortedBucket());
+        }
+    }
+
+    /**
+     * Indexes the given task, replacing whatever was indexed for its id before.
+     *
+     * @param task task to index; its id must already be assigned
+     */
+    void add(Task task) {
+        int id = task.getId();
+        remove(id);
+
+        entries.put(id, task);
+        TaskCursor position = TaskCursor.after(task);
+        if(task.getStatus() != null){
+            byStatus.get(task.getStatus()).put(position, task);
+        }
+        if(task.getPriority() != null){
+            byPriority.get(task.getPriority()).put(position, task);
+        }
+        if(task.getDueDate() != null){
+            addToDueDate(task.getDueDate(), id, task);
+        }else{
+            undated.put(id, task);
+        }
+        if(task.getStatus() != TaskStatus.DONE){
+            open.put(new UrgencyKey(task.getPriority(), task.getDueDate(), id), task);
+        }
+        counters.add(TaskEncoding.ordinal(task.getStatus()), TaskEncoding.ordinal(task.getPriority()), TaskEncoding.boundDay(task.getDueDate()));
+    }
+
+    /**
+     * Removes the task with the given id from every index it was added to.
+     *
+     * @param id identifier of the task to remove
+     */
+    void remove(int id) {
+        Task entry = entries.remove(id);
+        if(entry == null){
+            return;
+        }
+        TaskCursor position = TaskCursor.after(entry);
+        if(entry.getStatus() != null){
+            byStatus.get(entry.getStatus()).remove(position);
+        }
+        if(entry.getPriority() != null){
+            byPriority.get(entry.getPriority()).remove(position);
+        }
+        if(entry.getDueDate() != null){
+            removeFromDueDate(entry.getDueDate(), id);
+        }else{
+            undated.remove(id);
+        }
+        if(entry.getStatus() != TaskStatus.DONE){
+            open.remove(new UrgencyKey(entry.getPriority(), entry.getDueDate(), id));
+        }
+        counters.remove(TaskEncoding.ordinal(entry.getStatus()), TaskEncoding.ordinal(entry.getPriority()), TaskEncoding.boundDay(entry.getDueDate()));
+    }
+
+    private void addToDueDate(LocalDate dueDate, int id, Task task) {
+        if(!concurrent){
+            byDueDate.computeIfAbsent(dueDate, d -> newSortedBucket()).put(id, task);
+            return;
+        }
+        synchronized (dueDateLock(dueDate)) {
+            byDueDate.computeIfAbsent(dueDate, d -> newSortedBucket()).put(id, task);
+        }
+    }
+
+    // Drops the bucket once its last task is gone, so dead dates are never visited again.
+    private void removeFromDueDate(LocalDate dueDate, int id) {
+        if(!concurrent){
+            NavigableMap<Integer, Task> bucket = byDueDate.get(dueDate);
+            bucket.remove(id);
+            if(bucket.isEmpty()){
+                byDueDate.remove(dueDate);
+            }
+            return;
+        }
+        // Under the date's lock no writer can add to the bucket between the
+        // emptiness check and the removal.
+        synchronized (dueDateLock(dueDate)) {
+            NavigableMap<Integer, Task> bucket = byDueDate.get(dueDate);
+            bucket.remove(id);
+            if(bucket.isEmpty()){
+                byDueDate.remove(dueDate);
+            }
+        }
+    }
+
+    private Object dueDateLock(LocalDate dueDate) {
+        int h = dueDate.hashCode() * 0x9E3779B9;
+        return dueDateLocks[(h ^ (h >>> 16)) & (dueDateLocks.length - 1)];
+    }
+
+    /**
+     * Drops every indexed task.
+     */
+    void clear() {
+        entries.clear();
+        byStatus.values().forEach(Map::clear);
+        byPriority.values().forEach(Map::clear);
+        byDueDate.clear();
+        undated.clear();
+        open.clear();
+        counters.clear();
+    }
+
+    /**
+     * Returns the maintained counts, with overdue and due-this-week measured from the given day.
+     */
+    TaskStatistics statistics(LocalDate today) {
+        return counters.snapshot(today);
+    }
+
+    List<Task> withStatus(TaskStatus status) {
+        return status == null ? new ArrayList<>() : new ArrayList<>(byStatus.get(status).values());
+    }
+
+    List<Task> withPriority(TaskPriority priority) {
+        return priority == null ? new ArrayList<>() : new ArrayList<>(byPriority.get(priority).values());
+    }
+
+    /**
+     * Lazily streams the tasks with the given status in (dueDate, id) order,
+     * starting strictly after the given cursor (or from the start if it is null).
+     */
+    Stream<Task> streamWithStatus(TaskStatus status, TaskCursor after) {
+        return status == null ? Stream.empty() : streamBucket(byStatus.get(status), after);
+    }
+
+    /**
+     * Lazily streams the tasks with the given priority in (dueDate, id) order,
+     * starting strictly after the given cursor (or from the start if it is null).
+     */
+    Stream<Task> streamWithPriority(TaskPriority priority, TaskCursor after) {
+        return priority == null ? Stream.empty() : streamBucket(byPriority.get(priority), after);
+    }
+
+    private static Stream<Task> streamBucket(NavigableMap<TaskCursor, Task> bucket, TaskCursor after) {
+        return after == null ? bucket.values().stream() : bucket.tailMap(after, false).values().stream();
+    }
+
+    /**
+     * Returns every indexed task ordered by due date, then id, with tasks
+     * that have no due date at the end.
+     */
+    List<Task> sortedByDueDate() {
+        List<Task> taskList = new ArrayList<>(entries.size());
+        for (Map<Integer, Task> bucket : byDueDate.values()) {
+            taskList.addAll(bucket.values());
+        }
+        taskList.addAll(undated.values());
+        return taskList;
+    }
+
+    /**
+     * Lazily streams indexed tasks in (dueDate, id) order, undated tasks last,
+     * starting strictly after the given cursor (or from the start if it is null).
+     * Positioning uses the sorted maps directly, so it costs O(log n).
+     */
+    Stream<Task> streamAfter(TaskCursor after) {
+        if(after == null){
+            return Stream.concat(flattenLazily(byDueDate), undated.values().stream());
+        }
+        if(after.getDueDate() == null){
+            return undated.tailMap(after.getId(), false).values().stream();
+        }
+        NavigableMap<Integer, Task> current = byDueDate.get(after.getDueDate());
+        Stream<Task> rest = current == null
+                ? Stream.empty()
+                : current.tailMap(after.getId(), false).values().stream();
+        return Stream.concat(
+                Stream.concat(rest, flattenLazily(byDueDate.tailMap(after.getDueDate(), false))),
+                undated.values().stream());
+    }
+
+    /**
+     * Answers a composite query with a simple selectivity-based plan.
+     * <p>
+     * The candidate sets are the union of the selected status buckets, the union of
+     * the selected priority buckets and the due-date range. Their sizes are compared
+     * and the smallest one drives the scan. If none of them is smaller than the index
+     * as a whole, all tasks are scanned. Every criterion is then checked on the
+     * driving candidates in a single pass. The due-date range, a single status or
+     * priority bucket and the full scan produce tasks already in (dueDate, id) order,
+     * so a query sorted by due date that is driven by one of them stops as soon as
+     * the limit is reached.
+     */
+    List<Task> query(TaskQuery query) {
+        LocalDate from = query.getDueFrom();
+        LocalDate to = query.getDueTo();
+        if(from != null && to != null && !from.isBefore(to)){
+            return new ArrayList<>();
+        }
+        boolean dueOrder = query.getSort() == TaskQuery.Sort.DUE_DATE;
+
+        // A limited, priority-ordered query over open tasks with no narrower index to
+        // drive it walks the urgency order and stops at the limit.
+        Set<TaskStatus> statuses = query.getStatuses();
+        if(query.getSort() == TaskQuery.Sort.PRIORITY && query.getLimit() > 0
+                && statuses != null && !statuses.contains(TaskStatus.DONE)
+                && query.getPriorities() == null && !query.hasDueRange()){
+            return query.select(open.values().stream(), true);
+        }
+
+        long scanSize = entries.size();
+        long statusSize = query.getStatuses() == null ? Long.MAX_VALUE : statusSize(query.getStatuses());
+        long prioritySize = query.getPriorities() == null ? Long.MAX_VALUE : prioritySize(query.getPriorities());
+        long bestBucket = Math.min(scanSize, Math.min(statusSize, prioritySize));
+
+        if(query.hasDueRange()){
+            NavigableMap<LocalDate, NavigableMap<Integer, Task>> range = dueRange(from, to);
+            if(rangeSizeUpTo(range, bestBucket) <= bestBucket){
+                return query.select(flattenLazily(range), dueOrder);
+            }
+        }
+        // A single status or priority bucket is already in (dueDate, id) order.
+        if(statusSize == bestBucket && statusSize < scanSize){
+            return query.select(union(byStatus, query.getStatuses()), dueOrder && query.getStatuses().size() == 1);
+        }
+        if(prioritySize == bestBucket && prioritySize < scanSize){
+            return query.select(union(byPriority, query.getPriorities()), dueOrder && query.getPriorities().size() == 1);
+        }
+        return query.select(streamAfter(null), dueOrder);
+    }
+
+    /**
+     * Returns the given number of most urgent tasks that are not DONE, highest
+     * priority first, then earliest due date. Only that many entries are read
+     * from the front of the urgency order, so this costs O(k) after an O(log n) seek.
+     */
+    List<Task> mostUrgent(int limit) {
+        List<Task> taskList = new ArrayList<>(Math.min(limit, 1024));
+        for (Task task : open.values()) {
+            if(taskList.size() == limit){
+                break;
+            }
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    List<Task> dueBefore(LocalDate date) {
+        return flatten(byDueDate.headMap(date, false));
+    }
+
+    List<Task> dueAfter(LocalDate date) {
+        return flatten(byDueDate.tailMap(date, false));
+    }
+
+    private NavigableMap<LocalDate, NavigableMap<Integer, Task>> dueRange(LocalDate from, LocalDate to) {
+        if(from == null){
+            return byDueDate.headMap(to, false);
+        }
+        if(to == null){
+            return byDueDate.tailMap(from, true);
+        }
+        return byDueDate.subMap(from, true, to, false);
+    }
+
+    // Counts the tasks in the range, but stops once the count passes the bound, so
+    // estimating a wide range never costs more than scanning the cheaper alternative.
+    private static long rangeSizeUpTo(NavigableMap<LocalDate, NavigableMap<Integer, Task>> range, long bound) {
+        long size = 0;
+        for (Map<Integer, Task> bucket : range.values()) {
+            size += bucket.size();
+            if(size > bound){
+                break;
+            }
+        }
+        return size;
+    }
+
+    // Bucket sizes come from the counters: a concurrent bucket would count its entries one by one.
+    private long statusSize(Set<TaskStatus> statuses) {
+        long size = 0;
+        for (TaskStatus status : statuses) {
+            size += counters.withStatus(TaskEncoding.ordinal(status));
+        }
+        return size;
+    }
+
+    private long prioritySize(Set<TaskPriority> priorities) {
+        long size = 0;
+        for (TaskPriority priority : priorities) {
+            size += counters.withPriority(TaskEncoding.ordinal(priority));
+        }
+        return size;
+    }
+
+    private static <E> Stream<Task> union(Map<E, NavigableMap<TaskCursor, Task>> buckets, Set<E> keys) {
+        return keys.stream().flatMap(key -> buckets.get(key).values().stream());
+    }
+
+    private <K, V> Map<K, V> newBucket() {
+        return concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+    }
+
+    private <K, V> NavigableMap<K, V> newSortedBucket() {
+        return concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    private static Stream<Task> flattenLazily(NavigableMap<LocalDate, NavigableMap<Integer, Task>> buckets) {
+        return buckets.values().stream().flatMap(bucket -> bucket.values().stream());
+    }
+
+    private static List<Task> flatten(Map<LocalDate, NavigableMap<Integer, Task>> buckets) {
+        List<Task> taskList = new ArrayList<>();
+        for (Map<Integer, Task> bucket : buckets.values()) {
+            taskList.addAll(bucket.values());
+        }
+        return taskList;
+    }
+}
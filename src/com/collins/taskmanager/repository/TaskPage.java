@@ -0,0 +1,58 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * One page of tasks from a keyset-paginated query, plus the cursor
+ * to pass back in to fetch the page after it.
+ */
+public final class TaskPage {
+    private final List<Task> tasks;     // Tasks on this page, in (dueDate, id) order.
+    private final TaskCursor next;      // Cursor for the following page, or null if this is the last one.
+
+    public TaskPage(List<Task> tasks, TaskCursor next) {
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.next = next;
+    }
+
+    /**
+     * Takes at most pageSize tasks from an ordered stream. One extra task is
+     * pulled to find out whether another page follows; the rest of the stream
+     * is never evaluated.
+     *
+     * @param ordered  tasks in (dueDate, id) order, starting after the requested cursor
+     * @param pageSize maximum number of tasks on the page
+     */
+    public static TaskPage of(Stream<Task> ordered, int pageSize) {
+        if(pageSize <= 0){
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        List<Task> tasks = ordered.limit(pageSize + 1L).collect(Collectors.toList());
+        if(tasks.size() <= pageSize){
+            return new TaskPage(tasks, null);
+        }
+        tasks.remove(pageSize);
+        return new TaskPage(tasks, TaskCursor.after(tasks.get(pageSize - 1)));
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public TaskCursor getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    public boolean isEmpty() {
+        return tasks.isEmpty();
+    }
+}
@@ -0,0 +1,138 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
+import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.search.TextQuery;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read-only queries over a set of tasks.
+ * <p>
+ * Shared by every {@link TaskRepository} and by read-only views such as
+ * {@link TaskSnapshot}, so code that only reads can accept either.
+ */
+public interface TaskQueries {
+    Task findById(Integer id);                                     //Returns the task with the given id, or null if there is none.
+    List<Task> findAll();                                          //Returns all tasks.
+    int count();                                                   //Returns the number of tasks without materializing them.
+    List<Task> findByStatus(TaskStatus status);                    //Returns all tasks that currently have the given status.
+    List<Task> findByPriority(TaskPriority priority);              //Returns all tasks that have the given priority level.
+    List<Task> findByDueAfter(LocalDate date);                     //Returns all tasks with a due date strictly after the given date.
+    List<Task> findByDueBefore(LocalDate date);                    //Returns all tasks with a due date strictly before the given date.
+    List<Task> findAllSortedByDueDate();                           //Returns all tasks ordered by due date then id, undated tasks last.
+
+    /**
+     * Lazily streams tasks in (dueDate, id) order, undated tasks last, starting
+     * strictly after the given cursor. Only as many tasks as the caller consumes
+     * are visited, so reading one page costs the same however many tasks exist.
+     * The stream must be consumed before the repository is modified again.
+     *
+     * @param after cursor to start after, or null to start from the first task
+     * @return ordered stream of tasks after the cursor
+     */
+    Stream<Task> streamSortedByDueDate(TaskCursor after);
+
+    /**
+     * Lazily streams tasks with the given status in (dueDate, id) order after the cursor.
+     */
+    default Stream<Task> streamByStatus(TaskStatus status, TaskCursor after) {
+        return streamSortedByDueDate(after).filter(task -> task.getStatus() == status);
+    }
+
+    /**
+     * Lazily streams tasks with the given priority in (dueDate, id) order after the cursor.
+     */
+    default Stream<Task> streamByPriority(TaskPriority priority, TaskCursor after) {
+        return streamSortedByDueDate(after).filter(task -> task.getPriority() == priority);
+    }
+
+    /**
+     * Lazily streams tasks due strictly after the given date, in (dueDate, id) order after the cursor.
+     * Starts directly at the first task past the date instead of skipping over earlier ones.
+     */
+    default Stream<Task> streamByDueAfter(LocalDate date, TaskCursor after) {
+        TaskCursor start = TaskCursor.afterDate(date);
+        if(after != null && after.compareTo(start) > 0){
+            start = after;
+        }
+        return streamSortedByDueDate(start).takeWhile(task -> task.getDueDate() != null);
+    }
+
+    /**
+     * Lazily streams tasks due strictly before the given date, in (dueDate, id) order after the cursor.
+     * Stops at the first task due on or after the date.
+     */
+    default Stream<Task> streamByDueBefore(LocalDate date, TaskCursor after) {
+        return streamSortedByDueDate(after)
+                .takeWhile(task -> task.getDueDate() != null && task.getDueDate().isBefore(date));
+    }
+
+    /**
+     * Returns the tasks matching every criterion of the query, in the query's
+     * sort order and cut to its limit. This default walks every task in due-date
+     * order; implementations with secondary indexes start from the most selective one.
+     *
+     * @param query criteria, sort order and limit
+     * @return matching tasks
+     */
+    default List<Task> query(TaskQuery query) {
+        return query.select(streamSortedByDueDate(null), query.getSort() == TaskQuery.Sort.DUE_DATE);
+    }
+
+    /**
+     * Returns the given number of most urgent tasks that are not DONE: highest
+     * priority first, then earliest due date (undated last), then id.
+     * This default runs a limited query, which keeps a bounded heap of the best
+     * candidates (O(n log k)); indexed repositories read a maintained order instead.
+     *
+     * @param limit maximum number of tasks to return
+     * @return most urgent open tasks, most urgent first
+     */
+    default List<Task> findMostUrgent(int limit) {
+        return query(TaskQuery.builder()
+                .excludeStatuses(TaskStatus.DONE)
+                .sortBy(TaskQuery.Sort.PRIORITY)
+                .limit(limit)
+                .build());
+    }
+
+    /**
+     * Returns task counts by status and priority, and the number of open tasks that
+     * are overdue or due within the seven days starting at the given day.
+     * This default counts every task; the bundled repositories maintain the counts
+     * as tasks are saved and deleted and answer without a scan.
+     *
+     * @param today day to measure overdue and due-this-week from
+     * @return dashboard statistics
+     */
+    default TaskStatistics statistics(LocalDate today) {
+        TaskCounters counters = new TaskCounters();
+        for (Task task : findAll()) {
+            counters.add(TaskEncoding.ordinal(task.getStatus()), TaskEncoding.ordinal(task.getPriority()),
+                    TaskEncoding.boundDay(task.getDueDate()));
+        }
+        return counters.snapshot(today);
+    }
+
+    /**
+     * Returns the tasks whose title or description match the full-text query, in id order.
+     * This default tokenizes every task; {@link SearchableTaskRepository} answers
+     * from an inverted index instead.
+     *
+     * @param query parsed full-text query
+     * @return matching tasks
+     */
+    default List<Task> search(TextQuery query) {
+        return findAll().stream()
+                .filter(task -> query.matches(task.getTitle(), task.getDescription()))
+                .sorted(Comparator.comparingInt(Task::getId))
+                .collect(Collectors.toList());
+    }
+}
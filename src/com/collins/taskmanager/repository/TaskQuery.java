@@ -0,0 +1,290 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combined filter over tasks: a set of allowed statuses, a set of allowed priorities,
+ * a due-date range and a text match, with a sort order and an optional limit.
+ * <p>
+ * Criteria that are not set match every task. Build instances with {@link #builder()}:
+ * <pre>
+ * TaskQuery.builder()
+ *         .priorities(TaskPriority.HIGH)
+ *         .excludeStatuses(TaskStatus.DONE)
+ *         .dueBetween(today, today.plusDays(7))
+ *         .limit(20)
+ *         .build();
+ * </pre>
+ */
+public final class TaskQuery {
+
+    /**
+     * Result orderings. Every order ends with the task id so results are deterministic.
+     */
+    public enum Sort {
+        DUE_DATE,       // Earliest due date first, undated tasks last.
+        PRIORITY,       // Highest priority first, then earliest due date.
+        ID              // Oldest (lowest id) first.
+    }
+
+    static final Comparator<Task> BY_PRIORITY = Comparator
+            .comparing(Task::getPriority, Comparator.nullsLast(Comparator.<TaskPriority>reverseOrder()))
+            .thenComparing(TaskCursor.TASK_ORDER);
+
+    private final Set<TaskStatus> statuses;         // Null means any status.
+    private final Set<TaskPriority> priorities;     // Null means any priority.
+    private final LocalDate dueFrom;                // Inclusive lower bound, or null.
+    private final LocalDate dueTo;                  // Exclusive upper bound, or null.
+    private final String text;                      // Case-insensitive substring of title or description, or null.
+    private final Sort sort;
+    private final int limit;                        // Maximum number of results, or 0 for no limit.
+
+    private TaskQuery(Builder builder) {
+        this.statuses = builder.statuses == null ? null : Collections.unmodifiableSet(EnumSet.copyOf(builder.statuses));
+        this.priorities = builder.priorities == null ? null : Collections.unmodifiableSet(EnumSet.copyOf(builder.priorities));
+        this.dueFrom = builder.dueFrom;
+        this.dueTo = builder.dueTo;
+        this.text = builder.text;
+        this.sort = builder.sort;
+        this.limit = builder.limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<TaskStatus> getStatuses() {
+        return statuses;
+    }
+
+    public Set<TaskPriority> getPriorities() {
+        return priorities;
+    }
+
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+
+    /**
+     * Returns true if the task satisfies every criterion of this query.
+     */
+    public boolean matches(Task task) {
+        if(statuses != null && !statuses.contains(task.getStatus())){
+            return false;
+        }
+        if(priorities != null && !priorities.contains(task.getPriority())){
+            return false;
+        }
+        if(hasDueRange()){
+            LocalDate due = task.getDueDate();
+            if(due == null
+                    || (dueFrom != null && due.isBefore(dueFrom))
+                    || (dueTo != null && !due.isBefore(dueTo))){
+                return false;
+            }
+        }
+        return matchesText(task.getTitle(), task.getDescription());
+    }
+
+    /**
+     * Returns true if there is no text criterion or the title or description contains it.
+     */
+    boolean matchesText(String title, String description) {
+        return text == null || containsIgnoreCase(title, text) || containsIgnoreCase(description, text);
+    }
+
+    /**
+     * Returns the comparator for this query's sort order.
+     */
+    public Comparator<Task> comparator() {
+        return switch (sort) {
+            case DUE_DATE -> TaskCursor.TASK_ORDER;
+            case PRIORITY -> BY_PRIORITY;
+            case ID -> Comparator.comparingInt(Task::getId);
+        };
+    }
+
+    /**
+     * Applies every criterion to the candidates in a single pass and returns the
+     * matches in this query's order, cut to the limit.
+     * <p>
+     * If the candidates already arrive in the requested order, evaluation stops as soon
+     * as the limit is reached. Otherwise a limited query keeps only the best matches
+     * in a bounded heap (O(n log k)) instead of sorting all of them.
+     *
+     * @param candidates     tasks to evaluate; must include every task that can match
+     * @param alreadyOrdered true if the candidates are already in this query's order
+     */
+    public List<Task> select(Stream<Task> candidates, boolean alreadyOrdered) {
+        return sortAndLimit(candidates.filter(this::matches), alreadyOrdered);
+    }
+
+    /**
+     * Like {@link #select(Stream, boolean)} for tasks that are already known to match.
+     */
+    List<Task> sortAndLimit(Stream<Task> matching, boolean alreadyOrdered) {
+        if(alreadyOrdered){
+            return (limit > 0 ? matching.limit(limit) : matching).collect(Collectors.toList());
+        }
+        Comparator<Task> order = comparator();
+        if(limit == 0){
+            return matching.sorted(order).collect(Collectors.toList());
+        }
+
+        // Max-heap of the best 'limit' matches seen so far; the root is the worst of them.
+        // It never holds more than limit tasks, and a huge limit only sizes it as it fills.
+        PriorityQueue<Task> best = new PriorityQueue<>(Math.min(limit, 1024), order.reversed());
+        matching.forEach(task -> {
+            if(best.size() < limit){
+                best.add(task);
+            }else if(order.compare(task, best.peek()) < 0){
+                best.poll();
+                best.add(task);
+            }
+        });
+        List<Task> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+
+    private static boolean containsIgnoreCase(String haystack, String needle) {
+        if(haystack == null){
+            return false;
+        }
+        int last = haystack.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            if(haystack.regionMatches(true, i, needle, 0, needle.length())){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQuery: " +
+                "statuses=" + statuses +
+                ", priorities=" + priorities +
+                ", dueFrom=" + dueFrom +
+                ", dueTo=" + dueTo +
+                ", text='" + text + '\'' +
+                ", sort=" + sort +
+                ", limit=" + limit;
+    }
+
+    public static final class Builder {
+        private Set<TaskStatus> statuses;
+        private Set<TaskPriority> priorities;
+        private LocalDate dueFrom;
+        private LocalDate dueTo;
+        private String text;
+        private Sort sort = Sort.DUE_DATE;
+        private int limit;
+
+        private Builder() {}
+
+        /**
+         * Only match tasks with one of the given statuses.
+         */
+        public Builder statuses(TaskStatus... statuses) {
+            this.statuses = statuses.length == 0 ? EnumSet.noneOf(TaskStatus.class) : EnumSet.copyOf(Arrays.asList(statuses));
+            return this;
+        }
+
+        /**
+         * Only match tasks whose status is not one of the given statuses.
+         */
+        public Builder excludeStatuses(TaskStatus... statuses) {
+            EnumSet<TaskStatus> allowed = EnumSet.allOf(TaskStatus.class);
+            allowed.removeAll(Arrays.asList(statuses));
+            this.statuses = allowed;
+            return this;
+        }
+
+        /**
+         * Only match tasks with one of the given priorities.
+         */
+        public Builder priorities(TaskPriority... priorities) {
+            this.priorities = priorities.length == 0 ? EnumSet.noneOf(TaskPriority.class) : EnumSet.copyOf(Arrays.asList(priorities));
+            return this;
+        }
+
+        /**
+         * Only match tasks due on or after the given date.
+         */
+        public Builder dueOnOrAfter(LocalDate date) {
+            this.dueFrom = date;
+            return this;
+        }
+
+        /**
+         * Only match tasks due strictly before the given date.
+         */
+        public Builder dueBefore(LocalDate date) {
+            this.dueTo = date;
+            return this;
+        }
+
+        /**
+         * Only match tasks due in [from, to).
+         */
+        public Builder dueBetween(LocalDate from, LocalDate to) {
+            return dueOnOrAfter(from).dueBefore(to);
+        }
+
+        /**
+         * Only match tasks whose title or description contains the text, ignoring case.
+         */
+        public Builder text(String text) {
+            this.text = text == null || text.isEmpty() ? null : text;
+            return this;
+        }
+
+        public Builder sortBy(Sort sort) {
+            this.sort = Objects.requireNonNull(sort);
+            return this;
+        }
+
+        /**
+         * Return at most the given number of tasks; 0 means no limit.
+         */
+        public Builder limit(int limit) {
+            if(limit < 0){
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public TaskQuery build() {
+            return new TaskQuery(this);
+        }
+    }
+}
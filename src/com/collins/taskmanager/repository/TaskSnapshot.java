@@ -0,0 +1,303 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * One immutable version of a {@link SnapshotTaskRepository}.
+ * <p>
+ * A snapshot never changes after it is published, so it can be read from any
+ * number of threads without locks, and a series of reads on the same snapshot
+ * always sees the same tasks. The immutable tasks it holds are shared with
+ * later versions.
+ * <p>
+ * Besides the tasks by id it keeps them in (dueDate, id) order, overall and per
+ * status and priority, in {@link PersistentTaskTree}s. A new version copies only
+ * the paths a write changes, so sorted and filtered reads never sort or scan
+ * and a write costs O(log n).
+ * <p>
+ * It offers the read-only {@link TaskQueries} of a TaskRepository and has no
+ * write methods; new versions are made by the repository.
+ */
+public final class TaskSnapshot implements TaskQueries {
+
+    static final TaskSnapshot EMPTY = rebuilt(0, PersistentIdMap.empty());
+
+    // A batch changing at least 1/REBUILD_SHARE of the tasks, such as a load, rebuilds the orders in one pass.
+    private static final int REBUILD_SHARE = 4;
+
+    private final long version;
+    private final PersistentIdMap<Task> tasks;
+    private final PersistentTaskTree sorted;
+    private final PersistentTaskTree[] byStatus;      // indexed by ordinal; tasks without a status are in none
+    private final PersistentTaskTree[] byPriority;
+
+    private TaskSnapshot(long version, PersistentIdMap<Task> tasks, PersistentTaskTree sorted,
+                         PersistentTaskTree[] byStatus, PersistentTaskTree[] byPriority) {
+        this.version = version;
+        this.tasks = tasks;
+        this.sorted = sorted;
+        this.byStatus = byStatus;
+        this.byPriority = byPriority;
+    }
+
+    TaskSnapshot with(Task task) {
+        Orders orders = new Orders(this);
+        orders.replace(tasks.get(task.getId()), task);
+        return orders.build(version + 1, tasks.with(task.getId(), task));
+    }
+
+    TaskSnapshot without(int id) {
+        Task removed = tasks.get(id);
+        if(removed == null){
+            return this;
+        }
+        Orders orders = new Orders(this);
+        orders.replace(removed, null);
+        return orders.build(version + 1, tasks.without(id));
+    }
+
+    TaskSnapshot withAll(List<Task> saved) {
+        PersistentIdMap.Editor<Task> editor = tasks.edit();
+        if(isLarge(saved.size())){
+            for (Task task : saved) {
+                editor.put(task.getId(), task);
+            }
+            return rebuilt(version + 1, editor.build());
+        }
+        Orders orders = new Orders(this);
+        for (Task task : saved) {
+            orders.replace(editor.get(task.getId()), task);
+            editor.put(task.getId(), task);
+        }
+        return orders.build(version + 1, editor.build());
+    }
+
+    TaskSnapshot withoutAll(Collection<Integer> ids) {
+        PersistentIdMap.Editor<Task> editor = tasks.edit();
+        boolean large = isLarge(ids.size());
+        Orders orders = large ? null : new Orders(this);
+        for (Integer id : ids) {
+            if(id != null){
+                if(!large){
+                    orders.replace(editor.get(id), null);
+                }
+                editor.remove(id);
+            }
+        }
+        return large ? rebuilt(version + 1, editor.build()) : orders.build(version + 1, editor.build());
+    }
+
+    TaskSnapshot cleared() {
+        return rebuilt(version + 1, PersistentIdMap.empty());
+    }
+
+    private boolean isLarge(int changes) {
+        return (long) changes * REBUILD_SHARE >= tasks.size();
+    }
+
+    // Sorts every task once and builds each order from its share of the sorted run.
+    private static TaskSnapshot rebuilt(long version, PersistentIdMap<Task> tasks) {
+        Task[] order = new Task[tasks.size()];
+        int[] next = {0};
+        tasks.forEach(task -> order[next[0]++] = task);
+        Arrays.parallelSort(order, TaskCursor.TASK_ORDER);
+
+        List<List<Task>> statusRuns = runs(TaskStatus.values().length);
+        List<List<Task>> priorityRuns = runs(TaskPriority.values().length);
+        for (Task task : order) {
+            if(task.getStatus() != null){
+                statusRuns.get(task.getStatus().ordinal()).add(task);
+            }
+            if(task.getPriority() != null){
+                priorityRuns.get(task.getPriority().ordinal()).add(task);
+            }
+        }
+        return new TaskSnapshot(version, tasks, PersistentTaskTree.ofSorted(Arrays.asList(order)),
+                trees(statusRuns), trees(priorityRuns));
+    }
+
+    private static List<List<Task>> runs(int count) {
+        List<List<Task>> runs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            runs.add(new ArrayList<>());
+        }
+        return runs;
+    }
+
+    private static PersistentTaskTree[] trees(List<List<Task>> runs) {
+        PersistentTaskTree[] trees = new PersistentTaskTree[runs.size()];
+        for (int i = 0; i < trees.length; i++) {
+            trees[i] = PersistentTaskTree.ofSorted(runs.get(i));
+        }
+        return trees;
+    }
+
+    /**
+     * @return number of writes applied before this snapshot was taken
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public Task findById(Integer id) {
+        return id == null ? null : tasks.get(id);
+    }
+
+    /**
+     * Returns all tasks in id order.
+     */
+    @Override
+    public List<Task> findAll() {
+        List<Task> taskList = new ArrayList<>(tasks.size());
+        tasks.forEach(taskList::add);
+        return taskList;
+    }
+
+    @Override
+    public int count() {
+        return tasks.size();
+    }
+
+    /**
+     * Returns the tasks with the given status in (dueDate, id) order.
+     */
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return status == null ? new ArrayList<>() : byStatus[status.ordinal()].toList();
+    }
+
+    /**
+     * Returns the tasks with the given priority in (dueDate, id) order.
+     */
+    @Override
+    public List<Task> findByPriority(TaskPriority priority) {
+        return priority == null ? new ArrayList<>() : byPriority[priority.ordinal()].toList();
+    }
+
+    @Override
+    public List<Task> findByDueAfter(LocalDate date) {
+        List<Task> taskList = new ArrayList<>();
+        for (Iterator<Task> it = sorted.iterator(TaskCursor.afterDate(date)); it.hasNext(); ) {
+            Task task = it.next();
+            if(task.getDueDate() == null){
+                break;
+            }
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    @Override
+    public List<Task> findByDueBefore(LocalDate date) {
+        List<Task> taskList = new ArrayList<>();
+        for (Iterator<Task> it = sorted.iterator(null); it.hasNext(); ) {
+            Task task = it.next();
+            if(task.getDueDate() == null || !task.getDueDate().isBefore(date)){
+                break;
+            }
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    @Override
+    public List<Task> findAllSortedByDueDate() {
+        return sorted.toList();
+    }
+
+    /**
+     * Streams tasks in (dueDate, id) order after the given cursor. The stream reads
+     * this snapshot only, so it stays valid while the repository keeps changing.
+     */
+    @Override
+    public Stream<Task> streamSortedByDueDate(TaskCursor after) {
+        return sorted.stream(after);
+    }
+
+    @Override
+    public Stream<Task> streamByStatus(TaskStatus status, TaskCursor after) {
+        return status == null ? Stream.empty() : byStatus[status.ordinal()].stream(after);
+    }
+
+    @Override
+    public Stream<Task> streamByPriority(TaskPriority priority, TaskCursor after) {
+        return priority == null ? Stream.empty() : byPriority[priority.ordinal()].stream(after);
+    }
+
+    /**
+     * Walks the order of the query's status or priority, whichever holds fewer tasks,
+     * when it names exactly one; otherwise every task in due-date order.
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        PersistentTaskTree candidates = sorted;
+        Set<TaskStatus> statuses = query.getStatuses();
+        if(statuses != null && statuses.size() == 1){
+            candidates = smaller(candidates, statuses.iterator().next(), byStatus);
+        }
+        Set<TaskPriority> priorities = query.getPriorities();
+        if(priorities != null && priorities.size() == 1){
+            candidates = smaller(candidates, priorities.iterator().next(), byPriority);
+        }
+        return query.select(candidates.stream(null), query.getSort() == TaskQuery.Sort.DUE_DATE);
+    }
+
+    private static PersistentTaskTree smaller(PersistentTaskTree candidates, Enum<?> value, PersistentTaskTree[] trees) {
+        if(value == null){
+            return candidates;
+        }
+        PersistentTaskTree tree = trees[value.ordinal()];
+        return tree.size() < candidates.size() ? tree : candidates;
+    }
+
+    // Collects the changes one write makes to the orders before they are frozen into a new snapshot.
+    private static final class Orders {
+        private PersistentTaskTree sorted;
+        private final PersistentTaskTree[] byStatus;
+        private final PersistentTaskTree[] byPriority;
+
+        private Orders(TaskSnapshot from) {
+            this.sorted = from.sorted;
+            this.byStatus = from.byStatus.clone();
+            this.byPriority = from.byPriority.clone();
+        }
+
+        // Moves a task from its previous version's position to the new one's; either may be null.
+        void replace(Task previous, Task task) {
+            if(previous != null){
+                sorted = sorted.without(previous);
+                if(previous.getStatus() != null){
+                    byStatus[previous.getStatus().ordinal()] = byStatus[previous.getStatus().ordinal()].without(previous);
+                }
+                if(previous.getPriority() != null){
+                    byPriority[previous.getPriority().ordinal()] = byPriority[previous.getPriority().ordinal()].without(previous);
+                }
+            }
+            if(task != null){
+                sorted = sorted.with(task);
+                if(task.getStatus() != null){
+                    byStatus[task.getStatus().ordinal()] = byStatus[task.getStatus().ordinal()].with(task);
+                }
+                if(task.getPriority() != null){
+                    byPriority[task.getPriority().ordinal()] = byPriority[task.getPriority().ordinal()].with(task);
+                }
+            }
+        }
+
+        TaskSnapshot build(long version, PersistentIdMap<Task> tasks) {
+            return new TaskSnapshot(version, tasks, sorted, byStatus, byPriority);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.collins.taskmanager.scheduler;
+
+import com.collins.taskmanager.model.Task;
+
+/**
+ * Receives due-date events from a {@link DueDateScheduler}.
+ * Both methods are called on the thread that runs {@link DueDateScheduler#tick()}.
+ */
+public interface DueDateListener {
+
+    /**
+     * The task's due date is within the scheduler's reminder window and it is not DONE.
+     * Called once per due date: re-saving the task without changing its due date does not repeat it.
+     */
+    default void dueSoon(Task task) {}
+
+    /**
+     * The task's due date has passed and it is not DONE.
+     */
+    default void overdue(Task task) {}
+}
@@ -0,0 +1,199 @@
+package com.collins.taskmanager.scheduler;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires "due soon" and "overdue" events for open tasks at the right day,
+ * without scanning the task list.
+ * <p>
+ * Each tracked task that is not DONE and has a due date gets two timers in a
+ * {@link TimingWheel} that ticks once per day:
+ * - due soon, at the start of the day reminderDays before the due date
+ *   (or at the next tick if that day has already begun)
+ * - overdue, at the start of the day after the due date
+ * Tracking a task again replaces its timers, so a new due date reschedules it and
+ * a DONE status or a delete cancels it. Tracking it with the same due date keeps
+ * them, so an event that has already fired is not sent again. Each {@link #tick()}
+ * only touches the timers that expire, so polling often is cheap however many
+ * tasks are tracked.
+ * <p>
+ * Listener callbacks run on the ticking thread, outside the scheduler's lock. An
+ * exception thrown by one is reported on standard error and does not stop later events.
+ */
+public class DueDateScheduler implements AutoCloseable {
+
+    public static final int DEFAULT_REMINDER_DAYS = 1;
+
+    private final DueDateListener listener;
+    private final int reminderDays;
+    private final Clock clock;
+    private final TimingWheel<Event> wheel;
+    private final Map<Integer, Registration> registrations = new HashMap<>();
+    private ScheduledExecutorService ticker;
+
+    // Timers and latest saved copy of one tracked task. A timer is null once it has fired.
+    private static final class Registration {
+        private Task task;
+        private final LocalDate dueDate;
+        private TimingWheel.Timer<Event> dueSoon;
+        private TimingWheel.Timer<Event> overdue;
+
+        Registration(Task task) {
+            this.task = task;
+            this.dueDate = task.getDueDate();
+        }
+    }
+
+    private record Event(Registration registration, boolean overdue) {}
+
+    public DueDateScheduler(DueDateListener listener) {
+        this(listener, DEFAULT_REMINDER_DAYS, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param listener     receives the events
+     * @param reminderDays how many days before the due date the due-soon event fires;
+     *                     0 fires it on the due date itself
+     * @param clock        source of the current date
+     */
+    public DueDateScheduler(DueDateListener listener, int reminderDays, Clock clock) {
+        if(reminderDays < 0){
+            throw new IllegalArgumentException("Reminder days must not be negative");
+        }
+        this.listener = listener;
+        this.reminderDays = reminderDays;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(today());
+    }
+
+    /**
+     * Starts or updates tracking for the task. Tasks that are DONE or have no
+     * due date are not tracked, and any timers left from an earlier version are cancelled.
+     */
+    public synchronized void track(Task task) {
+        Registration current = registrations.get(task.getId());
+        boolean trackable = task.getStatus() != TaskStatus.DONE && task.getDueDate() != null;
+        if(current != null && trackable && current.dueDate.equals(task.getDueDate())){
+            current.task = task;        // Same due date: keep the timers, and events already sent.
+            return;
+        }
+        untrack(task.getId());
+        if(!trackable){
+            return;
+        }
+
+        Registration registration = new Registration(task);
+        long due = task.getDueDate().toEpochDay();
+        long overdueDay = due + 1;
+        if(wheel.now() < overdueDay){
+            registration.dueSoon = wheel.schedule(due - reminderDays, new Event(registration, false));
+        }
+        registration.overdue = wheel.schedule(overdueDay, new Event(registration, true));
+        registrations.put(task.getId(), registration);
+    }
+
+    /**
+     * Stops tracking the task with the given id and cancels its pending events.
+     */
+    public synchronized void untrack(int id) {
+        Registration registration = registrations.remove(id);
+        if(registration != null){
+            cancel(registration.dueSoon);
+            cancel(registration.overdue);
+        }
+    }
+
+    public synchronized void clear() {
+        for (Integer id : new ArrayList<>(registrations.keySet())) {
+            untrack(id);
+        }
+    }
+
+    /**
+     * @return number of tracked tasks, including overdue ones whose events have all fired
+     */
+    public synchronized int size() {
+        return registrations.size();
+    }
+
+    /**
+     * Advances to the current date and delivers every event that has come due.
+     * Calls within the same day after the first cost almost nothing.
+     */
+    public void tick() {
+        List<Event> fired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(today(), fired::add);
+            // Keep fired registrations, so saving the task again does not schedule the event again.
+            for (Event event : fired) {
+                if(event.overdue()){
+                    event.registration().overdue = null;
+                }else{
+                    event.registration().dueSoon = null;
+                }
+            }
+        }
+        for (Event event : fired) {
+            Task task = event.registration().task;
+            try{
+                if(event.overdue()){
+                    listener.overdue(task);
+                }else{
+                    listener.dueSoon(task);
+                }
+            }catch (RuntimeException e){
+                // A failing listener must not stop the other events, or the background ticks.
+                System.err.println("Due date listener failed for task " + task.getId() + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Calls {@link #tick()} at the given period on a background daemon thread,
+     * starting now.
+     */
+    public synchronized void start(Duration period) {
+        if(ticker != null){
+            throw new IllegalStateException("Scheduler already started");
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-due-date-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, 0, period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background ticking started by {@link #start(Duration)}.
+     */
+    @Override
+    public synchronized void close() {
+        if(ticker != null){
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    private void cancel(TimingWheel.Timer<Event> timer) {
+        if(timer != null){
+            wheel.cancel(timer);
+        }
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+}
@@ -0,0 +1,81 @@
+package com.collins.taskmanager.scheduler;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.repository.ForwardingTaskRepository;
+import com.collins.taskmanager.repository.TaskRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Wraps a TaskRepository and keeps a {@link DueDateScheduler} in step with it:
+ * every saved task is tracked again (which reschedules a changed due date and
+ * cancels a task marked DONE), and deleted tasks are untracked.
+ */
+public class SchedulingTaskRepository extends ForwardingTaskRepository {
+
+    private final DueDateScheduler scheduler;
+
+    /**
+     * Wraps the given repository and tracks the tasks it already holds.
+     */
+    public SchedulingTaskRepository(TaskRepository delegate, DueDateScheduler scheduler) {
+        super(delegate);
+        this.scheduler = scheduler;
+        delegate.findAll().forEach(scheduler::track);
+    }
+
+    @Override
+    public Task save(Task entity) {
+        Task saved = delegate.save(entity);
+        scheduler.track(saved);
+        return saved;
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> entities) {
+        List<Task> saved = delegate.saveAll(entities);
+        saved.forEach(scheduler::track);
+        return saved;
+    }
+
+    /**
+     * Updates the task through the wrapped repository's update and tracks the result.
+     */
+    @Override
+    public Task update(Integer id, UnaryOperator<Task> change) {
+        Task saved = delegate.update(id, change);
+        if(saved != null){
+            scheduler.track(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Task> updateAll(Collection<Integer> ids, UnaryOperator<Task> change) {
+        List<Task> saved = delegate.updateAll(ids, change);
+        if(saved != null){
+            saved.forEach(scheduler::track);
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+        scheduler.untrack(id);
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ids) {
+        delegate.deleteAllById(ids);
+        ids.forEach(scheduler::untrack);
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        scheduler.clear();
+    }
+}
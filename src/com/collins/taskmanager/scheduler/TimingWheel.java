@@ -0,0 +1,215 @@
+package com.collins.taskmanager.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel over abstract integer ticks.
+ * <p>
+ * Four levels of 64 slots each cover 64, 64^2, 64^3 and 64^4 ticks ahead.
+ * A timer goes into the lowest level whose span reaches its deadline. When the
+ * clock passes a slot boundary of a higher level, that slot's timers are
+ * cascaded into lower levels, and level 0 slots are fired as the clock reaches
+ * them. Timers further out than the top level wait in an overflow list that is
+ * re-sorted once per top-level revolution.
+ * <p>
+ * Scheduling and cancelling are O(1). Advancing by one tick costs the timers
+ * fired plus the timers cascaded, and each timer cascades at most once per
+ * level, so the work follows the number of expiring timers, not the total.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ *
+ * @param <T> payload handed back when a timer fires
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    private final Timer<T>[][] wheels;
+    private final Timer<T> expired = new Timer<>(0, null);     // Deadlines already reached when scheduled.
+    private final Timer<T> overflow = new Timer<>(0, null);    // Deadlines beyond the top level.
+    private long now;
+    private int size;
+
+    /**
+     * A scheduled timer. Keep it to cancel the timer later.
+     */
+    static final class Timer<T> {
+        private final long deadline;
+        private final T item;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(long deadline, T item) {
+            this.deadline = deadline;
+            this.item = item;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+
+        T item() {
+            return item;
+        }
+
+        boolean isPending() {
+            return prev != null;
+        }
+    }
+
+    /**
+     * @param now current tick; timers fire once the wheel is advanced to their deadline
+     */
+    TimingWheel(long now) {
+        this.now = now;
+        wheels = newWheels();
+        for (Timer<T>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = sentinel();
+            }
+        }
+        clearList(expired);
+        clearList(overflow);
+    }
+
+    long now() {
+        return now;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules the item to fire when the wheel reaches the deadline. A deadline that
+     * has already been reached fires on the next call to {@link #advance}.
+     */
+    Timer<T> schedule(long deadline, T item) {
+        Timer<T> timer = new Timer<>(deadline, item);
+        if(deadline <= now){
+            link(expired, timer);
+        }else{
+            place(timer);
+        }
+        size++;
+        return timer;
+    }
+
+    /**
+     * @return true if the timer was pending and will now never fire
+     */
+    boolean cancel(Timer<T> timer) {
+        if(!timer.isPending()){
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to the given tick and passes the item of every timer
+     * whose deadline is now reached to the consumer, in deadline order.
+     * Moving backwards only fires the already expired timers.
+     */
+    void advance(long to, Consumer<? super T> fired) {
+        drain(expired, fired);
+        if(size == 0 && to > now){
+            now = to;           // Nothing to fire or cascade on the way.
+            return;
+        }
+        while (now < to) {
+            long tick = ++now;
+            // Cascade from the top down so timers reach level 0 before it fires.
+            if((tick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0){
+                cascade(overflow);
+            }
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0){
+                    cascade(wheels[level][slot(tick, level)]);
+                }
+            }
+            drain(wheels[0][slot(tick, 0)], fired);
+            if(size == 0 && now < to){
+                now = to;
+            }
+        }
+    }
+
+    // Files a timer with a future deadline into the lowest level that shares the clock's higher digits.
+    private void place(Timer<T> timer) {
+        long deadline = timer.deadline;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if((deadline >>> shift) == (now >>> shift)){
+                link(wheels[level][slot(deadline, level)], timer);
+                return;
+            }
+        }
+        link(overflow, timer);
+    }
+
+    private void cascade(Timer<T> list) {
+        Timer<T> timer = list.next;
+        clearList(list);
+        while (timer != list) {
+            Timer<T> next = timer.next;
+            if(timer.deadline <= now){
+                link(wheels[0][slot(now, 0)], timer);
+            }else{
+                place(timer);
+            }
+            timer = next;
+        }
+    }
+
+    private void drain(Timer<T> list, Consumer<? super T> fired) {
+        Timer<T> timer = list.next;
+        clearList(list);
+        while (timer != list) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            size--;
+            fired.accept(timer.item);
+            timer = next;
+        }
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    // Generic arrays cannot be created directly; every slot only ever holds Timer<T>.
+    @SuppressWarnings("unchecked")
+    private static <T> Timer<T>[][] newWheels() {
+        return (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+    }
+
+    private Timer<T> sentinel() {
+        Timer<T> head = new Timer<>(0, null);
+        clearList(head);
+        return head;
+    }
+
+    private static <T> void clearList(Timer<T> head) {
+        head.prev = head;
+        head.next = head;
+    }
+
+    private static <T> void link(Timer<T> head, Timer<T> timer) {
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private static <T> void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+}
@@ -0,0 +1,284 @@
+package com.collins.taskmanager.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from normalized terms to the ids of the documents containing them.
+ * <p>
+ * Each term owns a posting list: a sorted, duplicate-free int array of ids.
+ * Terms are kept in a sorted map, so a prefix query visits just the terms in
+ * the prefix range. The index also remembers which posting lists each document
+ * is in, so re-indexing a changed document only touches the terms that were
+ * added or dropped, and removing it needs no re-tokenizing.
+ * <p>
+ * Searches run under a shared read lock and updates under an exclusive write lock.
+ */
+public class InvertedIndex {
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Integer, Postings[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes the document with the given id, replacing its previous terms.
+     *
+     * @param id     document id
+     * @param fields texts to index; null fields are ignored
+     */
+    public void put(int id, String... fields) {
+        Set<String> terms = new HashSet<>();
+        for (String field : fields) {
+            Tokenizer.forEachTerm(field, terms::add);
+        }
+
+        lock.writeLock().lock();
+        try{
+            Postings[] previous = documents.get(id);
+            Map<String, Postings> kept = new HashMap<>();
+            if(previous != null){
+                for (Postings list : previous) {
+                    if(terms.contains(list.term)){
+                        kept.put(list.term, list);
+                    }else{
+                        removeFrom(list, id);
+                    }
+                }
+            }
+            Postings[] current = new Postings[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                Postings list = kept.get(term);
+                if(list == null){
+                    list = postings.computeIfAbsent(term, Postings::new);
+                    list.add(id);
+                }
+                current[i++] = list;
+            }
+            documents.put(id, current);
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the document with the given id from every posting list it is in.
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try{
+            Postings[] previous = documents.remove(id);
+            if(previous != null){
+                for (Postings list : previous) {
+                    removeFrom(list, id);
+                }
+            }
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try{
+            postings.clear();
+            documents.clear();
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of indexed documents
+     */
+    public int size() {
+        lock.readLock().lock();
+        try{
+            return documents.size();
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching the query.
+     * <p>
+     * Within an alternative, the term lists are intersected from the shortest up,
+     * so the work is bounded by the rarest term. The alternatives are then merged.
+     * Posting lists are read in place; only the result is copied.
+     *
+     * @return ids of matching documents in ascending order
+     */
+    public int[] search(TextQuery query) {
+        lock.readLock().lock();
+        try{
+            IdList result = new IdList(new int[0], 0);
+            for (List<TextQuery.Term> alternative : query.getAlternatives()) {
+                IdList matches = matchAll(alternative);
+                result = result.size == 0 ? matches : union(result, matches);
+            }
+            return Arrays.copyOf(result.ids, result.size);
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sorted ids in ids[0, size); may share the array of a posting list.
+    private record IdList(int[] ids, int size) {}
+
+    private IdList matchAll(List<TextQuery.Term> terms) {
+        List<IdList> lists = new ArrayList<>(terms.size());
+        for (TextQuery.Term term : terms) {
+            IdList ids = lookup(term);
+            if(ids.size == 0){
+                return ids;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(IdList::size));
+        IdList result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    // Ids for one term; a prefix term merges the lists of every term in its range.
+    private IdList lookup(TextQuery.Term term) {
+        if(!term.prefix()){
+            Postings list = postings.get(term.text());
+            return list == null ? new IdList(new int[0], 0) : new IdList(list.ids, list.size);
+        }
+        Collection<Postings> range = postings.subMap(term.text(), true, term.text() + Character.MAX_VALUE, false).values();
+        if(range.size() == 1){
+            Postings list = range.iterator().next();
+            return new IdList(list.ids, list.size);
+        }
+        int total = 0;
+        for (Postings list : range) {
+            total += list.size;
+        }
+        int[] ids = new int[total];
+        int n = 0;
+        for (Postings list : range) {
+            System.arraycopy(list.ids, 0, ids, n, list.size);
+            n += list.size;
+        }
+        Arrays.sort(ids);
+        return new IdList(ids, distinct(ids));
+    }
+
+    private void removeFrom(Postings list, int id) {
+        list.remove(id);
+        if(list.size == 0){
+            postings.remove(list.term);
+        }
+    }
+
+    /**
+     * Intersects two sorted id lists. When one side is much shorter, each of its ids
+     * is binary-searched in the other instead of walking both.
+     */
+    private static IdList intersect(IdList a, IdList b) {
+        int[] out = new int[Math.min(a.size, b.size)];
+        int n = 0;
+        if(a.size * 16L < b.size){
+            int from = 0;
+            for (int i = 0; i < a.size && from < b.size; i++) {
+                int found = Arrays.binarySearch(b.ids, from, b.size, a.ids[i]);
+                if(found >= 0){
+                    out[n++] = a.ids[i];
+                    from = found + 1;
+                }else{
+                    from = -found - 1;
+                }
+            }
+        }else{
+            int i = 0;
+            int j = 0;
+            while (i < a.size && j < b.size) {
+                if(a.ids[i] < b.ids[j]){
+                    i++;
+                }else if(a.ids[i] > b.ids[j]){
+                    j++;
+                }else{
+                    out[n++] = a.ids[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return new IdList(out, n);
+    }
+
+    private static IdList union(IdList a, IdList b) {
+        int[] out = new int[a.size + b.size];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.size || j < b.size) {
+            if(j == b.size || (i < a.size && a.ids[i] < b.ids[j])){
+                out[n++] = a.ids[i++];
+            }else if(i == a.size || b.ids[j] < a.ids[i]){
+                out[n++] = b.ids[j++];
+            }else{
+                out[n++] = a.ids[i++];
+                j++;
+            }
+        }
+        return new IdList(out, n);
+    }
+
+    // Removes duplicates from a sorted array in place and returns the new length.
+    private static int distinct(int[] sorted) {
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if(n == 0 || sorted[i] != sorted[n - 1]){
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Sorted, growable posting list for one term. Ids usually arrive in increasing
+     * order, so adding one is normally an append.
+     */
+    private static final class Postings {
+        private final String term;
+        private int[] ids = new int[4];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int id) {
+            if(size == ids.length){
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            if(size == 0 || ids[size - 1] < id){
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if(at >= 0){
+                return;
+            }
+            at = -at - 1;
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if(at < 0){
+                return;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+    }
+}
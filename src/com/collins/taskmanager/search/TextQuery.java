@@ -0,0 +1,99 @@
+package com.collins.taskmanager.search;
+
+import java.util.*;
+
+/**
+ * Parsed full-text query: a list of alternatives joined by OR, where each
+ * alternative is a list of terms that must all be present (AND).
+ * <p>
+ * Syntax:
+ * - Words separated by spaces must all match: {@code report draft}
+ * - {@code OR} (upper case) separates alternatives: {@code invoice OR receipt}
+ * - {@code AND} is accepted and means the same as a space
+ * - A trailing {@code *} matches any term starting with the word: {@code deploy*}
+ * Words are normalized with {@link Tokenizer}, so matching ignores case and accents.
+ */
+public final class TextQuery {
+
+    /**
+     * One normalized term, matched exactly or as a prefix.
+     */
+    public record Term(String text, boolean prefix) {
+        boolean matches(String term) {
+            return prefix ? term.startsWith(text) : term.equals(text);
+        }
+    }
+
+    private final List<List<Term>> alternatives;
+
+    private TextQuery(List<List<Term>> alternatives) {
+        this.alternatives = alternatives;
+    }
+
+    /**
+     * Parses a query string.
+     *
+     * @throws IllegalArgumentException if the query contains no searchable words
+     */
+    public static TextQuery parse(String query) {
+        List<List<Term>> alternatives = new ArrayList<>();
+        List<Term> current = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if(word.equals("OR")){
+                if(!current.isEmpty()){
+                    alternatives.add(List.copyOf(current));
+                    current.clear();
+                }
+                continue;
+            }
+            if(word.equals("AND")){
+                continue;
+            }
+            boolean prefix = word.endsWith("*");
+            List<String> terms = new ArrayList<>();
+            Tokenizer.forEachTerm(prefix ? word.substring(0, word.length() - 1) : word, terms::add);
+            for (int i = 0; i < terms.size(); i++) {
+                // Only the last piece of a word like "e-mail*" is a prefix.
+                current.add(new Term(terms.get(i), prefix && i == terms.size() - 1));
+            }
+        }
+        if(!current.isEmpty()){
+            alternatives.add(List.copyOf(current));
+        }
+        if(alternatives.isEmpty()){
+            throw new IllegalArgumentException("Search query has no words to search for");
+        }
+        return new TextQuery(List.copyOf(alternatives));
+    }
+
+    public List<List<Term>> getAlternatives() {
+        return alternatives;
+    }
+
+    /**
+     * Evaluates the query directly against the given texts, without an index.
+     */
+    public boolean matches(String... fields) {
+        Set<String> terms = new HashSet<>();
+        for (String field : fields) {
+            Tokenizer.forEachTerm(field, terms::add);
+        }
+        for (List<Term> alternative : alternatives) {
+            if(alternative.stream().allMatch(term -> terms.stream().anyMatch(term::matches))){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner or = new StringJoiner(" OR ");
+        for (List<Term> alternative : alternatives) {
+            StringJoiner and = new StringJoiner(" ");
+            alternative.forEach(term -> and.add(term.prefix() ? term.text() + "*" : term.text()));
+            or.add(and.toString());
+        }
+        return or.toString();
+    }
+}
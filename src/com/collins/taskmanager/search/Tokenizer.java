@@ -0,0 +1,50 @@
+package com.collins.taskmanager.search;
+
+import java.text.Normalizer;
+import java.util.function.Consumer;
+
+/**
+ * Splits free text into normalized search terms.
+ * <p>
+ * A term is a maximal run of letters and digits. Terms are lower-cased and
+ * accents are removed, so "Café", "CAFE" and "cafe" all become "cafe".
+ * Everything else (spaces, punctuation, symbols) separates terms.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {}
+
+    /**
+     * Passes every term of the text to the consumer, in order. Repeated terms are passed each time.
+     *
+     * @param text text to split; null produces no terms
+     */
+    public static void forEachTerm(String text, Consumer<String> consumer) {
+        if(text == null){
+            return;
+        }
+        String normalized = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if(Character.isLetterOrDigit(c)){
+                term.append(Character.toLowerCase(c));
+            }else if(Character.getType(c) != Character.NON_SPACING_MARK && term.length() > 0){
+                consumer.accept(term.toString());
+                term.setLength(0);
+            }
+        }
+        if(term.length() > 0){
+            consumer.accept(term.toString());
+        }
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if(text.charAt(i) > 0x7F){
+                return false;
+            }
+        }
+        return true;
+    }
+}
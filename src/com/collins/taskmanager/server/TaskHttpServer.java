@@ -0,0 +1,382 @@
+package com.collins.taskmanager.server;
+
+import com.collins.taskmanager.io.TaskJson;
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.repository.TaskCursor;
+import com.collins.taskmanager.repository.TaskPage;
+import com.collins.taskmanager.service.TaskNotFoundException;
+import com.collins.taskmanager.service.TaskService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * JSON over HTTP front end for a {@link TaskService}, built on the JDK's com.sun.net.httpserver.
+ * <p>
+ * Endpoints (tasks are {@link TaskJson} objects):
+ * - POST   /tasks              creates a task from a body with title, description, status,
+ *                              priority and dueDate; 201 with the saved task
+ * - GET    /tasks/{id}         200 with the task
+ * - GET    /tasks              one page in due-date order: {"tasks":[...],"next":CURSOR or null}.
+ *                              Parameters: limit (default 20, at most 1000), after (the next
+ *                              cursor of the previous page) and at most one of status,
+ *                              priority, dueBefore or dueAfter
+ * - PUT    /tasks/{id}/status  sets the status from a body such as {"status":"DONE"}; 200 with the task
+ * - DELETE /tasks/{id}         204
+ * Errors are {"error":"message"}: 400 for malformed input, 404 for an unknown task or path,
+ * 405 for an unsupported method and 413 for a body over 1 MB.
+ * <p>
+ * The request body is always read to the end and every response has a fixed
+ * Content-Length, so HTTP/1.1 clients can keep a connection alive for many requests.
+ * TCP_NODELAY is switched on (unless sun.net.httpserver.nodelay is set) so a small
+ * response is not held back waiting for the client's delayed ACK.
+ * <p>
+ * Each request runs on its own virtual thread when the JDK has them (21 and later) and on
+ * a fixed pool of platform threads otherwise. Requests run concurrently, so the service
+ * must sit on a thread-safe repository such as ConcurrentTaskRepository.
+ */
+public class TaskHttpServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 1_000;
+    private static final int MAX_BODY_SIZE = 1 << 20;
+    private static final int BACKLOG = 1_024;
+
+    static {
+        // Read once when the JDK server classes initialise, so it has to be set before the first create().
+        if(System.getProperty("sun.net.httpserver.nodelay") == null){
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final TaskService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * Binds the server; call {@link #start()} to begin handling requests.
+     *
+     * @param address address to listen on; port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public TaskHttpServer(TaskService service, InetSocketAddress address) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(address, BACKLOG);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/tasks", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return the port the server listens on, useful when it was bound to port 0
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return true if requests run on virtual threads, false if on the platform thread pool
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting connections, gives requests in progress up to a second to
+     * finish and shuts the request threads down.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try{
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try{
+            Response response;
+            try{
+                byte[] body = readBody(exchange.getRequestBody());
+                response = route(exchange.getRequestMethod(), exchange.getRequestURI(),
+                        new String(body, StandardCharsets.UTF_8));
+            }catch (HttpError e){
+                response = error(e.status, e.getMessage());
+            }catch (IllegalArgumentException | DateTimeException e){
+                response = error(400, e.getMessage());
+            }catch (RuntimeException e){
+                response = error(500, e.toString());
+            }
+            send(exchange, response);
+        }finally {
+            exchange.close();
+        }
+    }
+
+    private Response route(String method, URI uri, String body) {
+        String path = uri.getPath();
+        if(path.equals("/tasks") || path.equals("/tasks/")){
+            return switch (method) {
+                case "GET" -> list(parseQuery(uri.getRawQuery()));
+                case "POST" -> create(body);
+                default -> throw notAllowed(method, path);
+            };
+        }
+        if(!path.startsWith("/tasks/")){
+            throw new HttpError(404, "No such path: " + path);
+        }
+        String[] parts = path.substring("/tasks/".length()).split("/");
+        int id = parseId(parts[0]);
+        if(parts.length == 1){
+            return switch (method) {
+                case "GET" -> ok(lookup(() -> service.getTaskById(id)));
+                case "DELETE" -> {
+                    lookup(() -> {
+                        service.deleteTask(id);
+                        return null;
+                    });
+                    yield new Response(204, null);
+                }
+                default -> throw notAllowed(method, path);
+            };
+        }
+        if(parts.length == 2 && parts[1].equals("status")){
+            if(!method.equals("PUT")){
+                throw notAllowed(method, path);
+            }
+            TaskStatus status = TaskJson.parse(body).getStatus();
+            if(status == null){
+                throw new IllegalArgumentException("status is required");
+            }
+            return ok(lookup(() -> service.updateStatus(id, status)));
+        }
+        throw new HttpError(404, "No such path: " + path);
+    }
+
+    private Response create(String body) {
+        Task task = TaskJson.parse(body);
+        if(task.getTitle() == null || task.getStatus() == null || task.getPriority() == null){
+            throw new IllegalArgumentException("title, status and priority are required");
+        }
+        // The server assigns the id and the timestamps, whatever the body says.
+        Task saved = service.createTask(task.toBuilder().id(0).createdNow().build());
+        return new Response(201, json(saved));
+    }
+
+    private Response list(Map<String, String> params) {
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_PAGE_SIZE;
+        if(limit <= 0 || limit > MAX_PAGE_SIZE){
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskCursor after = params.containsKey("after") ? parseCursor(params.get("after")) : null;
+
+        TaskPage page = null;
+        int filters = 0;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String value = param.getValue();
+            TaskPage filtered = switch (param.getKey()) {
+                case "status" -> service.filterByStatusPage(TaskStatus.valueOf(value.toUpperCase()), after, limit);
+                case "priority" -> service.filterByPriorityPage(TaskPriority.valueOf(value.toUpperCase()), after, limit);
+                case "dueBefore" -> service.filterByDueDateBeforePage(LocalDate.parse(value), after, limit);
+                case "dueAfter" -> service.filterByDueDateAfterPage(LocalDate.parse(value), after, limit);
+                case "limit", "after" -> null;
+                default -> throw new IllegalArgumentException("Unknown parameter: " + param.getKey());
+            };
+            if(filtered != null){
+                page = filtered;
+                filters++;
+            }
+        }
+        if(filters > 1){
+            throw new IllegalArgumentException("Give at most one of status, priority, dueBefore and dueAfter");
+        }
+        if(page == null){
+            page = service.getTasksPage(after, limit);
+        }
+
+        StringWriter out = new StringWriter(128 * (page.getTasks().size() + 1));
+        try{
+            out.write("{\"tasks\":[");
+            boolean first = true;
+            for (Task task : page.getTasks()) {
+                if(!first){
+                    out.write(',');
+                }
+                TaskJson.write(out, task);
+                first = false;
+            }
+            out.write("],\"next\":");
+            TaskJson.writeString(out, page.hasNext() ? formatCursor(page.getNext()) : null);
+            out.write('}');
+        }catch (IOException e){
+            throw new IllegalStateException(e);     // a StringWriter never throws
+        }
+        return new Response(200, out.toString());
+    }
+
+    // Only an invalid or unknown id is "not found"; any other failure stays a 500.
+    private static <T> T lookup(Supplier<T> call) {
+        try{
+            return call.get();
+        }catch (TaskNotFoundException e){
+            throw new HttpError(404, e.getMessage());
+        }
+    }
+
+    private static int parseId(String text) {
+        try{
+            return Integer.parseInt(text);
+        }catch (NumberFormatException e){
+            throw new HttpError(404, "No such task: " + text);
+        }
+    }
+
+    /**
+     * Cursors are sent as "dueDate:id", with an empty due date for undated tasks.
+     */
+    static String formatCursor(TaskCursor cursor) {
+        return (cursor.getDueDate() == null ? "" : cursor.getDueDate().toString()) + ":" + cursor.getId();
+    }
+
+    static TaskCursor parseCursor(String text) {
+        int colon = text.lastIndexOf(':');
+        if(colon < 0){
+            throw new IllegalArgumentException("Invalid cursor: " + text);
+        }
+        LocalDate dueDate = colon == 0 ? null : LocalDate.parse(text.substring(0, colon));
+        return new TaskCursor(dueDate, Integer.parseInt(text.substring(colon + 1)));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if(rawQuery == null || rawQuery.isEmpty()){
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY_SIZE + 1);
+        if(body.length > MAX_BODY_SIZE){
+            throw new HttpError(413, "Request body larger than " + MAX_BODY_SIZE + " bytes");
+        }
+        return body;
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if(response.json() == null){
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        byte[] bytes = response.json().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Response ok(Task task) {
+        return new Response(200, json(task));
+    }
+
+    private static String json(Task task) {
+        StringWriter out = new StringWriter(256);
+        try{
+            TaskJson.write(out, task);
+        }catch (IOException e){
+            throw new IllegalStateException(e);     // a StringWriter never throws
+        }
+        return out.toString();
+    }
+
+    private static Response error(int status, String message) {
+        StringWriter out = new StringWriter();
+        try{
+            out.write("{\"error\":");
+            TaskJson.writeString(out, message);
+            out.write('}');
+        }catch (IOException e){
+            throw new IllegalStateException(e);
+        }
+        return new Response(status, out.toString());
+    }
+
+    private static HttpError notAllowed(String method, String path) {
+        return new HttpError(405, method + " is not supported on " + path);
+    }
+
+    /**
+     * Looks the virtual-thread executor up reflectively, so the server builds and runs
+     * on JDK 17 as well.
+     *
+     * @return a virtual-thread-per-task executor, or null if this JDK has none
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try{
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }catch (ReflectiveOperationException e){
+            return null;
+        }
+    }
+
+    // Handlers only touch memory, so a couple of threads per core keep every core busy.
+    private static ExecutorService newPlatformThreadPool() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "task-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private record Response(int status, String json) {}
+
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
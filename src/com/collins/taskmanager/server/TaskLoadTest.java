@@ -0,0 +1,232 @@
+package com.collins.taskmanager.server;
+
+import com.collins.taskmanager.repository.ConcurrentTaskRepository;
+import com.collins.taskmanager.service.TaskService;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local load test for {@link TaskHttpServer}.
+ * <p>
+ * Usage: TaskLoadTest [threads] [seconds] [baseUrl]
+ * Defaults to 8 client threads for 10 seconds against a server started in this JVM on a
+ * free loopback port, over a ConcurrentTaskRepository. Give a base URL such as
+ * http://localhost:8080 to load a running server instead.
+ * <p>
+ * The test first creates SEED_TASKS tasks, then warms up, then has every thread send
+ * requests back to back over its own keep-alive connection: 60% GET /tasks/{id},
+ * 15% GET /tasks?status=TODO&limit=20, 15% PUT /tasks/{id}/status and 10% POST /tasks.
+ * It prints the request rate and latency percentiles of the measured run.
+ */
+public class TaskLoadTest {
+
+    private static final int SEED_TASKS = 10_000;
+    private static final long WARMUP_NANOS = 3_000_000_000L;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        TaskHttpServer server = null;
+        String baseUrl;
+        if(args.length > 2){
+            baseUrl = args[2];
+        }else{
+            server = new TaskHttpServer(new TaskService(new ConcurrentTaskRepository()),
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.start();
+            baseUrl = "http://localhost:" + server.getPort();
+            System.out.println("Started server on " + baseUrl + " using "
+                    + (server.usesVirtualThreads() ? "virtual threads" : "a platform thread pool"));
+        }
+
+        try{
+            int[] ids = seed(new Client(baseUrl));
+            System.out.println("Seeded " + ids.length + " tasks; warming up");
+            run(baseUrl, ids, threads, WARMUP_NANOS);
+
+            System.out.println("Running " + threads + " threads for " + seconds + " s");
+            long start = System.nanoTime();
+            Worker[] workers = run(baseUrl, ids, threads, seconds * 1_000_000_000L);
+            long elapsed = System.nanoTime() - start;
+            report(workers, elapsed);
+        }finally {
+            if(server != null){
+                server.close();
+            }
+        }
+    }
+
+    private static int[] seed(Client client) throws IOException, InterruptedException {
+        int[] ids = new int[SEED_TASKS];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = client.create(i);
+        }
+        return ids;
+    }
+
+    private static Worker[] run(String baseUrl, int[] ids, int threads, long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(new Client(baseUrl), ids, deadline);
+            running[i] = new Thread(workers[i], "load-" + i);
+            running[i].start();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+        for (Worker worker : workers) {
+            if(worker.failure != null){
+                throw new IllegalStateException("Load thread failed", worker.failure);
+            }
+        }
+        return workers;
+    }
+
+    private static void report(Worker[] workers, long elapsedNanos) {
+        int total = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            total += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("Requests: %d (%d errors) in %.1f s%n", total, errors, elapsedNanos / 1e9);
+        System.out.printf("Throughput: %.0f requests/s%n", total * 1e9 / elapsedNanos);
+        System.out.printf("Latency ms: p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), total == 0 ? 0.0 : latencies[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if(sorted.length == 0){
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Sends requests back to back until the deadline, recording the latency of each.
+     */
+    private static final class Worker implements Runnable {
+        private final Client client;
+        private final int[] ids;
+        private final long deadline;
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private long errors;
+        private Exception failure;
+
+        Worker(Client client, int[] ids, long deadline) {
+            this.client = client;
+            this.ids = ids;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try{
+                long now = System.nanoTime();
+                while (now < deadline) {
+                    int roll = random.nextInt(100);
+                    int id = ids[random.nextInt(ids.length)];
+                    int status;
+                    if(roll < 60){
+                        status = client.send(client.get("/tasks/" + id));
+                    }else if(roll < 75){
+                        status = client.send(client.get("/tasks?status=TODO&limit=20"));
+                    }else if(roll < 90){
+                        status = client.send(client.put("/tasks/" + id + "/status",
+                                "{\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}"));
+                    }else{
+                        status = client.send(client.post(random.nextInt()));
+                    }
+                    long end = System.nanoTime();
+                    if(status >= 300){
+                        errors++;
+                    }
+                    record(end - now);
+                    now = end;
+                }
+            }catch (IOException | InterruptedException e){
+                failure = e;
+            }
+        }
+
+        private void record(long nanos) {
+            if(count == latencies.length){
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    /**
+     * One HTTP/1.1 client per load thread, so each thread reuses its own connection.
+     */
+    private static final class Client {
+        private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final String baseUrl;
+
+        Client(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+
+        HttpRequest put(String path, String json) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        HttpRequest post(int n) {
+            String json = "{\"title\":\"Load task " + n + "\",\"description\":\"Created by the load test\","
+                    + "\"status\":\"TODO\",\"priority\":\"MEDIUM\",\"dueDate\":\"2026-0" + (1 + Math.floorMod(n, 9))
+                    + "-1" + Math.floorMod(n, 10) + "\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        int send(HttpRequest request) throws IOException, InterruptedException {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        int create(int n) throws IOException, InterruptedException {
+            HttpResponse<String> response = http.send(post(n), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            if(response.statusCode() != 201 || !matcher.find()){
+                throw new IOException("Create failed with " + response.statusCode() + ": " + response.body());
+            }
+            return Integer.parseInt(matcher.group(1));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.collins.taskmanager.service;
+
+import com.collins.taskmanager.io.TaskStorage;
+import com.collins.taskmanager.model.TaskChanges;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind persistence for a {@link TaskService}.
+ * <p>
+ * Changes made through the service are only recorded in memory, and a background
+ * daemon thread writes them to the storage with TaskStorage.saveChanges:
+ * - at the latest one interval after the previous flush, if anything changed;
+ * - sooner, as soon as the number of changes since the last flush reaches the threshold.
+ * The service tracks changes by task id, so a burst of edits to the same tasks is
+ * coalesced into one flush that writes each task once. Service callers never wait
+ * for the disk; they only bump a counter.
+ * <p>
+ * A failed flush puts its changes back into the service, so nothing is lost, and
+ * is retried at the next interval, whether the storage threw an IOException or an
+ * unchecked exception. The first background failure is reported on standard error,
+ * as is the flush that succeeds again, so a full disk does not go unnoticed. {@link #close()} stops the thread and makes one
+ * last flush on the calling thread.
+ */
+public class AutoSaver implements AutoCloseable {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(5);
+    public static final int DEFAULT_DIRTY_THRESHOLD = 1_000;
+
+    private final TaskService service;
+    private final TaskStorage storage;
+    private final long intervalNanos;
+    private final int dirtyThreshold;
+    private final AtomicInteger dirty = new AtomicInteger();
+    private final Object flushLock = new Object();      // one flush at a time
+    private volatile boolean closed;
+    private volatile IOException lastFailure;
+    private Thread thread;
+
+    public AutoSaver(TaskService service, TaskStorage storage) {
+        this(service, storage, DEFAULT_INTERVAL, DEFAULT_DIRTY_THRESHOLD);
+    }
+
+    /**
+     * @param interval       longest time a change waits before it is written
+     * @param dirtyThreshold number of changed tasks that triggers a flush before the interval is up
+     */
+    public AutoSaver(TaskService service, TaskStorage storage, Duration interval, int dirtyThreshold) {
+        if(interval.isNegative() || interval.isZero()){
+            throw new IllegalArgumentException("Autosave interval must be positive: " + interval);
+        }
+        if(dirtyThreshold <= 0){
+            throw new IllegalArgumentException("Dirty threshold must be positive: " + dirtyThreshold);
+        }
+        this.service = service;
+        this.storage = storage;
+        this.intervalNanos = interval.toNanos();
+        this.dirtyThreshold = dirtyThreshold;
+    }
+
+    /**
+     * Starts listening to the service and flushing on a background daemon thread.
+     */
+    public synchronized void start() {
+        if(thread != null || closed){
+            throw new IllegalStateException("Autosaver already started or closed");
+        }
+        thread = new Thread(this::run, "task-autosave");
+        thread.setDaemon(true);
+        service.addChangeListener(this::changed);
+        thread.start();
+    }
+
+    /**
+     * Writes every pending change now, on the calling thread.
+     *
+     * @throws IOException if the storage cannot be written, or wrapping an unchecked
+     *                     exception thrown by it; either way the changes stay pending
+     */
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            // Reset first: anything changed from here on counts towards the next flush.
+            dirty.set(0);
+            if(!service.hasChanges()){
+                return;
+            }
+            TaskChanges changes = service.drainChanges();
+            try{
+                storage.saveChanges(changes);
+                lastFailure = null;
+            }catch (IOException | RuntimeException e){
+                service.restoreChanges(changes);
+                IOException failure = e instanceof IOException io ? io : new IOException("Saving tasks failed: " + e, e);
+                lastFailure = failure;
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * @return the error of the last background or explicit flush, or null if it succeeded
+     */
+    public IOException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Stops the background thread, waiting for a flush in progress, then writes
+     * whatever is still pending.
+     *
+     * @throws IOException if the final flush fails; the changes stay pending in the service
+     *                     and were not written
+     */
+    @Override
+    public void close() throws IOException {
+        Thread running;
+        synchronized (this) {
+            closed = true;
+            running = thread;
+        }
+        if(running != null){
+            LockSupport.unpark(running);
+            try{
+                running.join();
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private void changed(int count) {
+        int before = dirty.getAndAdd(count);
+        if(before < dirtyThreshold && before + count >= dirtyThreshold){
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        boolean failing = false;
+        long deadline = System.nanoTime() + intervalNanos;
+        while (!closed) {
+            long remaining = deadline - System.nanoTime();
+            if(remaining > 0 && dirty.get() < dirtyThreshold){
+                LockSupport.parkNanos(this, remaining);
+                continue;
+            }
+            try{
+                flush();
+                if(failing){
+                    System.err.println("Autosave succeeded again; all changes are saved");
+                    failing = false;
+                }
+            }catch (IOException e){
+                // The changes were restored and are retried next interval; report only the first failure.
+                if(!failing){
+                    System.err.println("Autosave failed, changes are kept and retried: " + e.getMessage());
+                    failing = true;
+                }
+            }
+            deadline = System.nanoTime() + intervalNanos;
+        }
+    }
+}
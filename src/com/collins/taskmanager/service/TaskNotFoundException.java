@@ -0,0 +1,15 @@
+package com.collins.taskmanager.service;
+
+/**
+ * Thrown by {@link TaskService} when an id is not positive or no task has it.
+ * It extends RuntimeException like the service's other errors, so existing
+ * callers that catch RuntimeException keep working.
+ */
+public class TaskNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TaskNotFoundException(String message) {
+        super(message);
+    }
+}
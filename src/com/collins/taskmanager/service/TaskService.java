@@ -1,44 +1,90 @@
 package com.collins.taskmanager.service;
 
 import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskChanges;
 import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatistics;
 import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.repository.TaskCursor;
+import com.collins.taskmanager.repository.TaskPage;
+import com.collins.taskmanager.repository.TaskQuery;
 import com.collins.taskmanager.repository.TaskRepository;
+import com.collins.taskmanager.search.TextQuery;
 
 import java.time.LocalDate;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
 
 public class TaskService {
     private final TaskRepository taskRepo;
 
+    // Tasks changed through this service since the last persist, so saves can write only those.
+    // The saved copies are kept rather than their ids, so draining never reads the repository,
+    // which may not be safe to read while another thread writes to it.
+    // Guarded by this service's monitor.
+    private final Map<Integer, Task> created = new LinkedHashMap<>();
+    private final Map<Integer, Task> updated = new LinkedHashMap<>();
+    private final Set<Integer> deletedIds = new LinkedHashSet<>();
+    private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
     public TaskService(TaskRepository taskRepo) {
         this.taskRepo = taskRepo;
     }
 
+    /**
+     * Registers a callback that is told how many tasks changed after every
+     * create, update or delete made through this service. It runs on the thread
+     * that made the change, so it must return quickly.
+     */
+    public void addChangeListener(IntConsumer listener){
+        changeListeners.add(listener);
+    }
+
     /**
      * Creates a new task by saving it to the repository.
      * Returns the saved task, including any generated id.
      */
     public Task createTask(Task task){
 
-        return taskRepo.save(task);
+        Task saved = taskRepo.save(task);
+        synchronized (this) {
+            created.put(saved.getId(), saved);
+        }
+        changed(1);
+        return saved;
+    }
+
+    /**
+     * Creates many tasks in one repository batch, for example when importing.
+     * Returns the saved tasks, in the order given, including their generated ids.
+     */
+    public List<Task> createTasks(Collection<Task> tasks){
+        List<Task> saved = taskRepo.saveAll(tasks);
+        synchronized (this) {
+            for (Task task : saved) {
+                created.put(task.getId(), task);
+            }
+        }
+        changed(saved.size());
+        return saved;
     }
 
     /**
      * Returns all tasks currently stored by dueDate in the repository.
+     * Ties are broken by id and tasks without a due date come last.
+     * The repository keeps this order up to date, so no sorting happens here.
      */
     public List<Task> getAllTasks(){
 
-//        List<Task> taskList = taskRepo.findAll();
-//         List<Task> sortedByDueDate = taskList.stream()
-//                 .sorted(Comparator.comparing(Task::getDueDate))
-//                 .toList();
+        return taskRepo.findAllSortedByDueDate();
+    }
 
-        return taskRepo.findAll()
-                .stream()
-                .sorted(Comparator.comparing(Task::getDueDate))
-                .toList();
+    /**
+     * Returns how many tasks are stored, without building a list of them.
+     */
+    public int count(){
+        return taskRepo.count();
     }
 
     /**
@@ -47,20 +93,28 @@ public class TaskService {
      *
      * @param id the identifier of the task
      * @return the matching Task
-     * @throws RuntimeException if the id is invalid or no task is found
+     * @throws TaskNotFoundException if the id is invalid or no task is found
      */
     public Task getTaskById(int id){
-        if(id<=0){
-            throw new RuntimeException("Invalid ID");
-        }
+        checkId(id);
 
         Task task = taskRepo.findById(id);
         if(task == null){
-            throw new RuntimeException("Task not found for id: "+id);
+            throw notFound(id);
         }
         return task;
     }
 
+    private static void checkId(int id){
+        if(id<=0){
+            throw new TaskNotFoundException("Invalid ID");
+        }
+    }
+
+    private static TaskNotFoundException notFound(int id){
+        return new TaskNotFoundException("Task not found for id: "+id);
+    }
+
     /**
      * Deletes the task with the given id, if it exists.
      * Relies on getTaskById to validate the id and existence.
@@ -68,23 +122,161 @@ public class TaskService {
     public void deleteTask(int id){
         getTaskById(id);
         taskRepo.deleteById(id);
+        synchronized (this) {
+            // A task created and deleted before it was ever persisted leaves nothing to write.
+            if(created.remove(id) == null){
+                updated.remove(id);
+                deletedIds.add(id);
+            }
+        }
+        changed(1);
+    }
+
+    /**
+     * Deletes every task with one of the given ids in one repository batch.
+     * All ids are validated first, so nothing is deleted if any is invalid or missing.
+     *
+     * @throws TaskNotFoundException if an id is invalid or no task exists for it
+     */
+    public void deleteTasks(Collection<Integer> ids){
+        for (Integer id : ids) {
+            getTaskById(id);
+        }
+        taskRepo.deleteAllById(ids);
+        synchronized (this) {
+            for (Integer id : ids) {
+                if(created.remove(id) == null){
+                    updated.remove(id);
+                    deletedIds.add(id);
+                }
+            }
+        }
+        changed(ids.size());
     }
 
     /**
      * Updates the status of a task with the given id.
      * <p>
-     * Validates that the task exists, sets the new status,
-     * saves it back to the repository and returns the updated task.
+     * The read and the save of the copy with the new status happen as one
+     * repository update, so a task deleted concurrently is never saved back.
      *
      * @param id        identifier of the task to update
      * @param newStatus new status to apply
      * @return the updated Task
-     * @throws RuntimeException if the id is invalid or the task does not exist
+     * @throws TaskNotFoundException if the id is invalid or the task does not exist
      */
     public Task updateStatus(int id, TaskStatus newStatus){
-        Task task = getTaskById(id);
-        task.setStatus(newStatus);
-        return taskRepo.save(task);
+        checkId(id);
+        // Recorded inside the update, so concurrent updates of one id are recorded in the order they are saved.
+        Task saved = taskRepo.update(id, task -> recordUpdated(task.withStatus(newStatus)));
+        if(saved == null){
+            throw notFound(id);
+        }
+        changed(1);
+        return saved;
+    }
+
+    /**
+     * Sets the same status on many tasks, for example to close them all out,
+     * and saves them in one repository update.
+     * All ids are validated first, so nothing changes if any is invalid or missing,
+     * and the repository checks and changes them with no other write in between.
+     *
+     * @param ids       identifiers of the tasks to update
+     * @param newStatus new status to apply
+     * @return the updated tasks, in the order of the ids
+     * @throws TaskNotFoundException if an id is invalid or no task exists for it
+     */
+    public List<Task> updateStatus(Collection<Integer> ids, TaskStatus newStatus){
+        for (Integer id : ids) {
+            checkId(id);
+        }
+        List<Task> saved = taskRepo.updateAll(ids, task -> recordUpdated(task.withStatus(newStatus)));
+        if(saved == null){
+            throw notFound(firstMissing(ids));
+        }
+        changed(saved.size());
+        return saved;
+    }
+
+    // Only names the id in the error; the update itself has already changed nothing.
+    private int firstMissing(Collection<Integer> ids){
+        for (Integer id : ids) {
+            if(taskRepo.findById(id) == null){
+                return id;
+            }
+        }
+        return ids.iterator().next();
+    }
+
+    // A task not yet persisted since its creation is still written as created, in its latest version.
+    private synchronized Task recordUpdated(Task task){
+        if(created.containsKey(task.getId())){
+            created.put(task.getId(), task);
+        }else{
+            updated.put(task.getId(), task);
+        }
+        return task;
+    }
+
+    private void changed(int count){
+        for (IntConsumer listener : changeListeners) {
+            listener.accept(count);
+        }
+    }
+
+    /**
+     * Returns true if any task was created, updated or deleted since the last
+     * call to {@link #drainChanges()}.
+     */
+    public synchronized boolean hasChanges(){
+        return !created.isEmpty() || !updated.isEmpty() || !deletedIds.isEmpty();
+    }
+
+    /**
+     * Collects every change made since the last call and starts tracking afresh.
+     * <p>
+     * The caller is expected to persist the result (for example with
+     * TaskStorage.saveChanges) and hand it back through {@link #restoreChanges(TaskChanges)}
+     * if that fails. The tasks are the copies recorded when they were saved, so
+     * draining does not read the repository and may run while other threads write.
+     *
+     * @return tasks created and updated, and ids deleted, since the last drain
+     */
+    public synchronized TaskChanges drainChanges(){
+        TaskChanges changes = new TaskChanges(new ArrayList<>(created.values()), new ArrayList<>(updated.values()),
+                new LinkedHashSet<>(deletedIds));
+        created.clear();
+        updated.clear();
+        deletedIds.clear();
+        return changes;
+    }
+
+    /**
+     * Puts changes that could not be persisted back into the set of pending changes,
+     * merging them with anything that changed in the meantime.
+     *
+     * @param changes changes previously returned by {@link #drainChanges()}
+     */
+    public synchronized void restoreChanges(TaskChanges changes){
+        for (Task task : changes.getCreated()) {
+            if(!deletedIds.contains(task.getId())){
+                // Still to be written as created, in the newest version recorded since.
+                Task newer = updated.remove(task.getId());
+                created.putIfAbsent(task.getId(), newer != null ? newer : task);
+            }else{
+                // Deleted again before it was ever written: nothing to persist.
+                deletedIds.remove(task.getId());
+            }
+        }
+        for (Task task : changes.getUpdated()) {
+            if(!deletedIds.contains(task.getId()) && !created.containsKey(task.getId())){
+                updated.putIfAbsent(task.getId(), task);
+            }
+        }
+        for (Integer id : changes.getDeleted()) {
+            deletedIds.add(id);
+        }
     }
 
     /**
@@ -114,4 +306,86 @@ public class TaskService {
     public List<Task> filterByDueDateAfter(LocalDate date){
         return taskRepo.findByDueAfter(date);
     }
+
+    /**
+     * Returns one page of tasks sorted by due date, starting after the given cursor.
+     *
+     * @param after    cursor from the previous page, or null for the first page
+     * @param pageSize maximum number of tasks on the page
+     */
+    public TaskPage getTasksPage(TaskCursor after, int pageSize){
+        return TaskPage.of(taskRepo.streamSortedByDueDate(after), pageSize);
+    }
+
+    /**
+     * Returns one page of tasks with the given status, sorted by due date.
+     */
+    public TaskPage filterByStatusPage(TaskStatus status, TaskCursor after, int pageSize){
+        return TaskPage.of(taskRepo.streamByStatus(status, after), pageSize);
+    }
+
+    /**
+     * Returns one page of tasks with the given priority, sorted by due date.
+     */
+    public TaskPage filterByPriorityPage(TaskPriority priority, TaskCursor after, int pageSize){
+        return TaskPage.of(taskRepo.streamByPriority(priority, after), pageSize);
+    }
+
+    /**
+     * Returns one page of tasks due strictly before the given date, sorted by due date.
+     */
+    public TaskPage filterByDueDateBeforePage(LocalDate date, TaskCursor after, int pageSize){
+        return TaskPage.of(taskRepo.streamByDueBefore(date, after), pageSize);
+    }
+
+    /**
+     * Returns one page of tasks due strictly after the given date, sorted by due date.
+     */
+    public TaskPage filterByDueDateAfterPage(LocalDate date, TaskCursor after, int pageSize){
+        return TaskPage.of(taskRepo.streamByDueAfter(date, after), pageSize);
+    }
+
+    /**
+     * Returns tasks matching a combination of statuses, priorities, due-date range and text.
+     */
+    public List<Task> query(TaskQuery query){
+        return taskRepo.query(query);
+    }
+
+    /**
+     * Returns dashboard statistics: counts by status and priority, and how many
+     * open tasks are overdue or due in the next seven days. The repository keeps
+     * these counts up to date, so no tasks are scanned.
+     */
+    public TaskStatistics getStatistics(){
+        return taskRepo.statistics(LocalDate.now());
+    }
+
+    /**
+     * Returns what to work on next: the given number of tasks that are not DONE,
+     * highest priority first and then earliest due date.
+     * Tasks marked DONE through updateStatus drop out immediately.
+     *
+     * @param count maximum number of tasks to return
+     * @throws RuntimeException if count is not positive
+     */
+    public List<Task> getNextTasks(int count){
+        if(count<=0){
+            throw new RuntimeException("Number of tasks must be positive");
+        }
+        return taskRepo.findMostUrgent(count);
+    }
+
+    /**
+     * Finds tasks whose title or description contain the given words.
+     * Words must all match unless separated by OR, and a trailing * matches
+     * any word with that prefix. Matching ignores case and accents.
+     *
+     * @param text search words, for example "report draft*" or "invoice OR receipt"
+     * @return matching tasks in id order
+     * @throws RuntimeException if the text contains no searchable words
+     */
+    public List<Task> search(String text){
+        return taskRepo.search(TextQuery.parse(text));
+    }
 }
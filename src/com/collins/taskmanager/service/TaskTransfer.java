@@ -0,0 +1,148 @@
+package com.collins.taskmanager.service;
+
+import com.collins.taskmanager.io.TaskFormat;
+import com.collins.taskmanager.io.TaskRecordReader;
+import com.collins.taskmanager.io.TaskRecordWriter;
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.repository.TaskPage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams tasks between a {@link TaskService} and CSV or JSON Lines files.
+ * <p>
+ * Import reads one record at a time and commits every batchSize tasks with a single
+ * TaskService.createTasks call. Export pages through the tasks in due-date order with
+ * the keyset cursor and writes each page before fetching the next. Either way at most
+ * one batch of tasks is held in memory, however large the file or the repository.
+ * <p>
+ * The progress listener is given the running total of tasks after every batch or page.
+ */
+public class TaskTransfer {
+
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private final TaskService service;
+    private final int batchSize;
+    private final LongConsumer progress;
+
+    public TaskTransfer(TaskService service) {
+        this(service, DEFAULT_BATCH_SIZE, count -> {});
+    }
+
+    /**
+     * @param batchSize number of tasks committed per createTasks call on import,
+     *                  and fetched per page on export
+     * @param progress  receives the number of tasks imported or exported so far
+     */
+    public TaskTransfer(TaskService service, int batchSize, LongConsumer progress) {
+        if(batchSize <= 0){
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.service = service;
+        this.batchSize = batchSize;
+        this.progress = progress;
+    }
+
+    /**
+     * Imports every task in the file, choosing the format from its extension.
+     *
+     * @param keepIds true to save tasks under the ids in the file, replacing any task
+     *                that already has that id; false to give every task a new id
+     * @return number of tasks imported
+     * @throws IOException if the file cannot be read or a record is malformed.
+     *                     Batches committed before the bad record stay imported.
+     */
+    public long importFile(Path file, boolean keepIds) throws IOException {
+        TaskFormat format = TaskFormat.forFile(file);
+        try (TaskRecordReader reader = format.newReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            return importFrom(reader, keepIds);
+        }
+    }
+
+    /**
+     * Imports every task the reader returns, in batches. The reader is not closed.
+     *
+     * @see #importFile(Path, boolean)
+     */
+    public long importFrom(TaskRecordReader reader, boolean keepIds) throws IOException {
+        List<Task> batch = new ArrayList<>(batchSize);
+        long imported = 0;
+        Task task;
+        while ((task = reader.read()) != null) {
+            batch.add(keepIds ? task : task.withId(0));
+            if(batch.size() == batchSize){
+                imported += commit(batch, imported);
+            }
+        }
+        if(!batch.isEmpty()){
+            imported += commit(batch, imported);
+        }
+        return imported;
+    }
+
+    private int commit(List<Task> batch, long imported) {
+        int size = service.createTasks(batch).size();
+        batch.clear();
+        progress.accept(imported + size);
+        return size;
+    }
+
+    /**
+     * Exports every task to the file in (dueDate, id) order, choosing the format from
+     * its extension. The tasks are written to a temp file next to it that replaces the
+     * file only once the export is complete.
+     *
+     * @return number of tasks exported
+     * @throws IOException if writing fails; the existing file is then left untouched
+     */
+    public long exportFile(Path file) throws IOException {
+        TaskFormat format = TaskFormat.forFile(file);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try{
+            long exported;
+            try (TaskRecordWriter writer = format.newWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+                exported = exportTo(writer);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return exported;
+        }finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes every task to the writer in (dueDate, id) order, one page at a time,
+     * and flushes it. The writer is not closed.
+     * <p>
+     * Changes made during the export are picked up only for positions the cursor has
+     * not passed yet, so a task whose due date changes meanwhile may be written twice or not at all.
+     *
+     * @return number of tasks exported
+     * @throws IOException if writing fails
+     */
+    public long exportTo(TaskRecordWriter writer) throws IOException {
+        long exported = 0;
+        TaskPage page = service.getTasksPage(null, batchSize);
+        while (true) {
+            for (Task task : page.getTasks()) {
+                writer.write(task);
+            }
+            exported += page.getTasks().size();
+            progress.accept(exported);
+            if(!page.hasNext()){
+                break;
+            }
+            page = service.getTasksPage(page.getNext(), batchSize);
+        }
+        writer.flush();
+        return exported;
+    }
+}
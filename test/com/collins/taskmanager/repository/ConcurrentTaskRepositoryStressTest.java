@@ -0,0 +1,306 @@
+package com.collins.taskmanager.repository;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.service.TaskService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Multi-threaded stress test for {@link ConcurrentTaskRepository}.
+ * <p>
+ * Several threads run concurrent save, saveAll, updateStatus (through TaskService)
+ * and deleteById calls against one repository. Each thread owns the tasks it creates and
+ * remembers what it last wrote to them, so the expected final contents are known exactly.
+ * On top of that, every thread increments counters kept in the titles of a few shared tasks
+ * with repository updates, which only add up if no update is lost. Afterwards the test checks:
+ * - every id handed out is unique, and together they are exactly 1..N;
+ * - every task a thread expects is stored as it last wrote it, and nothing else is stored;
+ * - the shared counters equal the number of increments made;
+ * - count() equals the size of findAll();
+ * - every status, priority and due-date index result, the sorted listing and the
+ *   paged streams match a full scan of findAll().
+ * <p>
+ * Usage: ConcurrentTaskRepositoryStressTest [threads] [operations per thread] [rounds]
+ * Exits with status 1 on the first failed check.
+ */
+public class ConcurrentTaskRepositoryStressTest {
+
+    private static final int SHARED_COUNTERS = 4;
+    private static final int SAVE_ALL_SIZE = 16;
+    private static final LocalDate FIRST_DUE_DATE = LocalDate.of(2026, 1, 1);
+    private static final int DUE_DATE_SPREAD = 60;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        try{
+            for (int round = 1; round <= rounds; round++) {
+                long start = System.nanoTime();
+                int stored = runRound(threads, operations, round);
+                System.out.println("Round " + round + ": " + threads + " threads x " + operations
+                        + " operations, " + stored + " tasks left, all checks passed in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        }catch (AssertionError e){
+            System.out.println("FAILED: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int runRound(int threads, int operations, long seed) throws Exception {
+        ConcurrentTaskRepository repository = new ConcurrentTaskRepository(threads);
+        TaskService service = new TaskService(repository);
+
+        int[] counters = new int[SHARED_COUNTERS];
+        for (int i = 0; i < SHARED_COUNTERS; i++) {
+            counters[i] = repository.save(new Task("0", "shared counter", TaskStatus.TODO, TaskPriority.HIGH, null)).getId();
+        }
+
+        Set<Integer> handedOut = ConcurrentHashMap.newKeySet();
+        for (int id : counters) {
+            handedOut.add(id);
+        }
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        CyclicBarrier startLine = new CyclicBarrier(threads);
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(repository, service, counters, handedOut, startLine, operations, new Random(seed * 1_000 + i));
+            running[i] = new Thread(workers[i], "stress-" + i);
+            running[i].start();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+        for (Worker worker : workers) {
+            if(worker.failure != null){
+                throw new AssertionError("Worker failed: " + worker.failure, worker.failure);
+            }
+        }
+
+        checkIds(handedOut, workers);
+        checkContents(repository, workers, counters);
+        checkIndexes(repository);
+        return repository.count();
+    }
+
+    private static void checkIds(Set<Integer> handedOut, Worker[] workers) {
+        long total = SHARED_COUNTERS;
+        for (Worker worker : workers) {
+            total += worker.created;
+        }
+        check(handedOut.size() == total, "duplicate ids: " + total + " tasks created but only "
+                + handedOut.size() + " distinct ids");
+        int max = handedOut.stream().mapToInt(Integer::intValue).max().orElse(0);
+        check(max == handedOut.size(), "ids are not dense: highest id " + max + " for " + handedOut.size() + " tasks");
+    }
+
+    private static void checkContents(ConcurrentTaskRepository repository, Worker[] workers, int[] counters) {
+        Map<Integer, Task> expected = new HashMap<>();
+        for (Worker worker : workers) {
+            expected.putAll(worker.owned);
+        }
+        long increments = 0;
+        for (Worker worker : workers) {
+            increments += worker.increments;
+        }
+        long counted = 0;
+        for (int id : counters) {
+            counted += Long.parseLong(repository.findById(id).getTitle());
+        }
+        check(counted == increments, "lost updates: " + increments + " increments but the counters add up to " + counted);
+
+        List<Task> all = repository.findAll();
+        check(repository.count() == all.size(), "count() is " + repository.count() + " but findAll() has " + all.size());
+        check(all.size() == expected.size() + SHARED_COUNTERS, "expected " + (expected.size() + SHARED_COUNTERS)
+                + " tasks but found " + all.size());
+        for (Map.Entry<Integer, Task> entry : expected.entrySet()) {
+            Task stored = repository.findById(entry.getKey());
+            check(stored != null, "task " + entry.getKey() + " is missing");
+            check(sameFields(stored, entry.getValue()), "task " + entry.getKey() + " is " + stored
+                    + " but was last written as " + entry.getValue());
+        }
+    }
+
+    private static void checkIndexes(ConcurrentTaskRepository repository) {
+        List<Task> all = repository.findAll();
+        for (TaskStatus status : TaskStatus.values()) {
+            checkSame("findByStatus(" + status + ")", repository.findByStatus(status),
+                    all.stream().filter(task -> task.getStatus() == status).collect(Collectors.toList()));
+            checkOrdered("streamByStatus(" + status + ")", pageThrough(after -> repository.streamByStatus(status, after)),
+                    all.stream().filter(task -> task.getStatus() == status).collect(Collectors.toList()));
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            checkSame("findByPriority(" + priority + ")", repository.findByPriority(priority),
+                    all.stream().filter(task -> task.getPriority() == priority).collect(Collectors.toList()));
+            checkOrdered("streamByPriority(" + priority + ")", pageThrough(after -> repository.streamByPriority(priority, after)),
+                    all.stream().filter(task -> task.getPriority() == priority).collect(Collectors.toList()));
+        }
+        for (int day = -1; day <= DUE_DATE_SPREAD; day += 7) {
+            LocalDate date = FIRST_DUE_DATE.plusDays(day);
+            checkSame("findByDueBefore(" + date + ")", repository.findByDueBefore(date),
+                    all.stream().filter(task -> task.getDueDate() != null && task.getDueDate().isBefore(date)).collect(Collectors.toList()));
+            checkSame("findByDueAfter(" + date + ")", repository.findByDueAfter(date),
+                    all.stream().filter(task -> task.getDueDate() != null && task.getDueDate().isAfter(date)).collect(Collectors.toList()));
+        }
+        checkOrdered("findAllSortedByDueDate()", repository.findAllSortedByDueDate(), all);
+        checkOrdered("streamSortedByDueDate()", pageThrough(repository::streamSortedByDueDate), all);
+    }
+
+    // Reads a whole listing 100 tasks at a time through keyset pages.
+    private static List<Task> pageThrough(Function<TaskCursor, Stream<Task>> stream) {
+        List<Task> tasks = new ArrayList<>();
+        TaskPage page = TaskPage.of(stream.apply(null), 100);
+        tasks.addAll(page.getTasks());
+        while (page.hasNext()) {
+            page = TaskPage.of(stream.apply(page.getNext()), 100);
+            tasks.addAll(page.getTasks());
+        }
+        return tasks;
+    }
+
+    private static void checkSame(String what, List<Task> actual, List<Task> scanned) {
+        Set<Integer> actualIds = new HashSet<>();
+        for (Task task : actual) {
+            check(actualIds.add(task.getId()), what + " returns task " + task.getId() + " twice");
+        }
+        Map<Integer, Task> scannedById = scanned.stream().collect(Collectors.toMap(Task::getId, task -> task));
+        check(actualIds.equals(scannedById.keySet()), what + " returns " + actualIds.size() + " tasks but a full scan finds "
+                + scannedById.size());
+        for (Task task : actual) {
+            check(sameFields(task, scannedById.get(task.getId())), what + " returns a stale copy of task " + task.getId());
+        }
+    }
+
+    private static void checkOrdered(String what, List<Task> actual, List<Task> unsorted) {
+        List<Task> sorted = new ArrayList<>(unsorted);
+        sorted.sort(TaskCursor.TASK_ORDER);
+        List<Integer> actualIds = actual.stream().map(Task::getId).collect(Collectors.toList());
+        List<Integer> sortedIds = sorted.stream().map(Task::getId).collect(Collectors.toList());
+        check(actualIds.equals(sortedIds), what + " does not list the tasks of a full scan in (dueDate, id) order");
+    }
+
+    private static boolean sameFields(Task a, Task b) {
+        return a.getId() == b.getId()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && a.getStatus() == b.getStatus()
+                && a.getPriority() == b.getPriority()
+                && Objects.equals(a.getDueDate(), b.getDueDate());
+    }
+
+    private static void check(boolean condition, String message) {
+        if(!condition){
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Runs a random mix of writes on the tasks it owns, plus increments of the shared counters.
+     */
+    private static final class Worker implements Runnable {
+        private final ConcurrentTaskRepository repository;
+        private final TaskService service;
+        private final int[] counters;
+        private final Set<Integer> handedOut;
+        private final CyclicBarrier startLine;
+        private final int operations;
+        private final Random random;
+
+        // Tasks this thread created and has not deleted, as it last wrote them.
+        private final Map<Integer, Task> owned = new HashMap<>();
+        private final List<Integer> ownedIds = new ArrayList<>();
+        private long created;
+        private long increments;
+        private Throwable failure;
+
+        Worker(ConcurrentTaskRepository repository, TaskService service, int[] counters, Set<Integer> handedOut,
+               CyclicBarrier startLine, int operations, Random random) {
+            this.repository = repository;
+            this.service = service;
+            this.counters = counters;
+            this.handedOut = handedOut;
+            this.startLine = startLine;
+            this.operations = operations;
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+            try{
+                startLine.await();
+                for (int i = 0; i < operations; i++) {
+                    int roll = random.nextInt(100);
+                    if(roll < 30){
+                        created(repository.save(randomTask()));
+                    }else if(roll < 40){
+                        List<Task> batch = new ArrayList<>(SAVE_ALL_SIZE);
+                        for (int j = 0; j < SAVE_ALL_SIZE; j++) {
+                            batch.add(randomTask());
+                        }
+                        repository.saveAll(batch).forEach(this::created);
+                    }else if(roll < 60 && !ownedIds.isEmpty()){
+                        int id = ownedIds.get(random.nextInt(ownedIds.size()));
+                        Task updated = service.updateStatus(id, TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+                        owned.put(id, updated);
+                    }else if(roll < 70 && !ownedIds.isEmpty()){
+                        int id = ownedIds.get(random.nextInt(ownedIds.size()));
+                        Task updated = repository.save(owned.get(id).withDueDate(randomDueDate()).withPriority(randomPriority()));
+                        owned.put(id, updated);
+                    }else if(roll < 85 && !ownedIds.isEmpty()){
+                        int index = random.nextInt(ownedIds.size());
+                        int id = ownedIds.get(index);
+                        ownedIds.set(index, ownedIds.get(ownedIds.size() - 1));
+                        ownedIds.remove(ownedIds.size() - 1);
+                        owned.remove(id);
+                        repository.deleteById(id);
+                    }else{
+                        int counter = counters[random.nextInt(counters.length)];
+                        repository.update(counter, task -> task.withTitle(Long.toString(Long.parseLong(task.getTitle()) + 1)));
+                        increments++;
+                    }
+                }
+            }catch (Throwable e){
+                failure = e;
+            }
+        }
+
+        private void created(Task task) {
+            if(!handedOut.add(task.getId())){
+                throw new AssertionError("id " + task.getId() + " was handed out twice");
+            }
+            created++;
+            owned.put(task.getId(), task);
+            ownedIds.add(task.getId());
+        }
+
+        private Task randomTask() {
+            return new Task("task " + random.nextInt(), "stress", TaskStatus.values()[random.nextInt(TaskStatus.values().length)],
+                    randomPriority(), randomDueDate());
+        }
+
+        private TaskPriority randomPriority() {
+            return TaskPriority.values()[random.nextInt(TaskPriority.values().length)];
+        }
+
+        // About one task in ten has no due date, so the undated bucket is exercised too.
+        private LocalDate randomDueDate() {
+            return random.nextInt(10) == 0 ? null : FIRST_DUE_DATE.plusDays(random.nextInt(DUE_DATE_SPREAD));
+        }
+    }
+}
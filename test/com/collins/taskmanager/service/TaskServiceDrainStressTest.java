@@ -0,0 +1,139 @@
+package com.collins.taskmanager.service;
+
+import com.collins.taskmanager.model.Task;
+import com.collins.taskmanager.model.TaskChanges;
+import com.collins.taskmanager.model.TaskPriority;
+import com.collins.taskmanager.model.TaskStatus;
+import com.collins.taskmanager.repository.InMemoryTaskRepository;
+import com.collins.taskmanager.repository.SearchableTaskRepository;
+import com.collins.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stress test for draining changes from a {@link TaskService} while another thread writes.
+ * <p>
+ * One thread creates, updates and deletes tasks through the service, the way the
+ * menu and batch modes do, on the same non thread-safe repository they use. A second
+ * thread keeps draining the pending changes, as the autosaver does, and applies them
+ * to a map that stands in for the storage. Once the writer is done and the last
+ * changes are drained, the map must hold exactly the tasks in the repository, each
+ * in its latest version: no change may be dropped because it was drained mid-write.
+ * <p>
+ * Usage: TaskServiceDrainStressTest [operations] [rounds]
+ * Exits with status 1 on the first failed check.
+ */
+public class TaskServiceDrainStressTest {
+
+    // Short enough to land many drains inside writes, long enough not to starve the writer.
+    private static final long DRAIN_PAUSE_NANOS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        try{
+            for (int round = 1; round <= rounds; round++) {
+                long start = System.nanoTime();
+                int stored = runRound(operations, round);
+                System.out.println("Round " + round + ": " + operations + " operations, " + stored
+                        + " tasks persisted, all checks passed in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        }catch (AssertionError e){
+            System.out.println("FAILED: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int runRound(int operations, long seed) throws Exception {
+        TaskRepository repository = new SearchableTaskRepository(new InMemoryTaskRepository());
+        TaskService service = new TaskService(repository);
+        Map<Integer, Task> persisted = new HashMap<>();
+
+        Throwable[] failure = new Throwable[1];
+        Thread writer = new Thread(() -> {
+            try{
+                write(service, operations, new Random(seed));
+            }catch (Throwable e){
+                failure[0] = e;
+            }
+        }, "drain-writer");
+        writer.start();
+        long drains = 0;
+        while (writer.isAlive()) {
+            apply(service.drainChanges(), persisted);
+            drains++;
+            LockSupport.parkNanos(DRAIN_PAUSE_NANOS);
+        }
+        writer.join();
+        if(failure[0] != null){
+            throw new AssertionError("Writer failed: " + failure[0], failure[0]);
+        }
+        apply(service.drainChanges(), persisted);
+        check(drains > 1, "the writer finished before the first drain; raise the number of operations");
+
+        List<Task> all = repository.findAll();
+        check(persisted.size() == all.size(), "the repository holds " + all.size() + " tasks but "
+                + persisted.size() + " were persisted");
+        for (Task task : all) {
+            Task written = persisted.get(task.getId());
+            check(written != null, "task " + task.getId() + " was never persisted");
+            check(sameFields(written, task), "task " + task.getId() + " is " + task + " but was persisted as " + written);
+        }
+        return all.size();
+    }
+
+    private static void write(TaskService service, int operations, Random random) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            int roll = random.nextInt(100);
+            if(roll < 50 || ids.isEmpty()){
+                Task task = new Task("task " + i, "drain", TaskStatus.TODO, TaskPriority.values()[random.nextInt(TaskPriority.values().length)],
+                        LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365)));
+                ids.add(service.createTask(task).getId());
+            }else if(roll < 85){
+                service.updateStatus(ids.get(random.nextInt(ids.size())), TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+            }else{
+                int index = random.nextInt(ids.size());
+                int id = ids.get(index);
+                ids.set(index, ids.get(ids.size() - 1));
+                ids.remove(ids.size() - 1);
+                service.deleteTask(id);
+            }
+        }
+    }
+
+    // Does what TaskStorage.saveChanges does to the stored tasks.
+    private static void apply(TaskChanges changes, Map<Integer, Task> persisted) {
+        for (Task task : changes.getCreated()) {
+            persisted.put(task.getId(), task);
+        }
+        for (Task task : changes.getUpdated()) {
+            persisted.put(task.getId(), task);
+        }
+        for (Integer id : changes.getDeleted()) {
+            persisted.remove(id);
+        }
+    }
+
+    private static boolean sameFields(Task a, Task b) {
+        return a.getId() == b.getId()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && a.getStatus() == b.getStatus()
+                && a.getPriority() == b.getPriority()
+                && Objects.equals(a.getDueDate(), b.getDueDate());
+    }
+
+    private static void check(boolean condition, String message) {
+        if(!condition){
+            throw new AssertionError(message);
+        }
+    }
+}